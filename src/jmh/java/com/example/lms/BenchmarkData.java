@@ -0,0 +1,77 @@
+package com.example.lms;
+
+import com.example.lms.model.Author;
+import com.example.lms.model.Book;
+import com.example.lms.model.Borrower;
+import com.example.lms.model.BorrowingTransaction;
+import com.example.lms.model.enums.Category;
+import com.example.lms.model.enums.TransactionStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic fixtures shared by the benchmarks: detached entities shaped like real catalog rows.
+ */
+public final class BenchmarkData {
+
+    private static final String[] WORDS = {
+            "river", "shadow", "garden", "empire", "silent", "winter", "glass", "harbor", "iron", "letters",
+            "midnight", "orchard", "paper", "quiet", "storm", "thousand", "velvet", "wild", "yellow", "zero"
+    };
+    private static final Category[] CATEGORIES = Category.values();
+
+    private BenchmarkData() {
+    }
+
+    public static List<Author> authors(int count, long seed) {
+        Random random = new Random(seed);
+        List<Author> authors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Author author = new Author(capitalize(word(random)) + " " + capitalize(word(random)) + " " + i, "Biography " + i);
+            author.setId(new UUID(seed, i));
+            authors.add(author);
+        }
+        return authors;
+    }
+
+    public static List<Book> books(int count, List<Author> authors, long seed) {
+        Random random = new Random(seed);
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = capitalize(word(random)) + " of the " + word(random) + " " + word(random);
+            Book book = new Book(title, String.format("978-%010d", i), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    authors.get(random.nextInt(authors.size())), random.nextInt(4) != 0);
+            book.setId(new UUID(seed + 1, i));
+            books.add(book);
+        }
+        return books;
+    }
+
+    public static List<BorrowingTransaction> loans(List<Book> books, long seed) {
+        Random random = new Random(seed);
+        List<BorrowingTransaction> loans = new ArrayList<>(books.size());
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < books.size(); i++) {
+            Borrower borrower = new Borrower("Borrower " + i, "borrower" + i + "@example.com", "555-" + i);
+            borrower.setId(new UUID(seed + 2, i));
+            LocalDate borrowDate = start.plusDays(random.nextInt(365));
+            BorrowingTransaction loan = new BorrowingTransaction(books.get(i), borrower, borrowDate, borrowDate.plusDays(14),
+                    random.nextBoolean() ? TransactionStatus.BORROWED : TransactionStatus.RETURNED);
+            loan.setId(new UUID(seed + 3, i));
+            loans.add(loan);
+        }
+        return loans;
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
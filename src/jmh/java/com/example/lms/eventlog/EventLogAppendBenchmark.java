@@ -0,0 +1,85 @@
+package com.example.lms.eventlog;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append throughput of {@link SegmentedEventLog}: plain appends (the fsync left to the background flusher),
+ * appends that fsync every {@code flushEvery} records, and four threads appending concurrently.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EventLogAppendBenchmark {
+
+    private static final byte[] DETAIL = "2025-03-24".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"67108864"})
+    public int segmentSize;
+
+    @Param({"256"})
+    public int flushEvery;
+
+    private final UUID loanId = UUID.randomUUID();
+    private final UUID bookId = UUID.randomUUID();
+    private final UUID borrowerId = UUID.randomUUID();
+
+    private Path directory;
+    private SegmentedEventLog log;
+    private long appended;
+
+    @Setup(Level.Iteration)
+    public void open() throws IOException {
+        directory = Files.createTempDirectory("event-log-bench");
+        log = new SegmentedEventLog(directory, segmentSize);
+        appended = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() throws IOException {
+        log.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long append() {
+        return log.append(CirculationEventType.CHECKOUT, System.currentTimeMillis(), loanId, bookId, borrowerId, DETAIL);
+    }
+
+    @Benchmark
+    public long appendWithGroupFsync() {
+        long offset = log.append(CirculationEventType.CHECKOUT, System.currentTimeMillis(), loanId, bookId, borrowerId, DETAIL);
+        if (++appended % flushEvery == 0) {
+            log.flush();
+        }
+        return offset;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long appendContended() {
+        return log.append(CirculationEventType.RETURN, System.currentTimeMillis(), loanId, bookId, borrowerId, DETAIL);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.lms.json;
+
+import com.example.lms.BenchmarkData;
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
+import com.example.lms.model.Book;
+import com.example.lms.util.ResponseMappers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of large DTO lists with an ObjectMapper configured the way Spring Boot configures the
+ * one used by the controllers: a whole list at once (the list endpoints) and one document per line to a stream
+ * (the NDJSON exports).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DtoJsonBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<BookResponseDTO> books;
+    private List<BorrowingTransactionResponseDTO> loans;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Book> entities = BenchmarkData.books(size, BenchmarkData.authors(size / 10 + 1, 2), 2);
+        books = entities.stream().map(ResponseMappers::toResponse).toList();
+        loans = BenchmarkData.loans(entities, 2).stream().map(ResponseMappers::toResponse).toList();
+    }
+
+    @Benchmark
+    public byte[] bookList() throws IOException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] loanList() throws IOException {
+        return objectMapper.writeValueAsBytes(loans);
+    }
+
+    @Benchmark
+    public long bookNdjsonStream() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            for (BookResponseDTO book : books) {
+                writer.write(book);
+            }
+        }
+        return out.count;
+    }
+
+    // Stands in for the response stream without buffering the output.
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.lms.search;
+
+import com.example.lms.BenchmarkData;
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.model.Book;
+import com.example.lms.model.enums.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Book search over the in-memory {@link BookSearchIndex}, against a linear scan applying the same filters
+ * and ordering to the same books, which is what the search cost would be without the trigram postings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookSearchBenchmark {
+
+    @Param({"100000"})
+    public int books;
+
+    @Param({"100"})
+    public int limit;
+
+    private BookSearchIndex index;
+    private List<IndexedBook> catalog;
+    private Comparator<IndexedBook> byTitle;
+
+    @Setup
+    public void setUp() {
+        List<Book> entities = BenchmarkData.books(books, BenchmarkData.authors(books / 20 + 1, 3), 3);
+        catalog = entities.stream()
+                .map(book -> new IndexedBook(book.getId(), book.getTitle(), book.getIsbn(), book.getCategory(),
+                        book.getAuthor().getId(), book.getAuthor().getName(), book.isAvailable()))
+                .toList();
+        index = new BookSearchIndex(null);
+        catalog.forEach(index::put);
+        byTitle = BookSortOrder.comparator(BookSortOrder.resolve(Sort.by("title")));
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> titleIndex() {
+        return index.search("winter", null, null, byTitle, limit);
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> titleScan() {
+        return scan("winter", null, null);
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> titleCategoryAuthorIndex() {
+        return index.search("garden", Category.FICTION, "storm", byTitle, limit);
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> titleCategoryAuthorScan() {
+        return scan("garden", Category.FICTION, "storm");
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> categoryOnlyIndex() {
+        return index.search(null, Category.FICTION, null, byTitle, limit);
+    }
+
+    private List<BookResponseDTO> scan(String title, Category category, String author) {
+        String titleKey = title == null ? null : title.toLowerCase(Locale.ROOT);
+        String authorKey = author == null ? null : author.toLowerCase(Locale.ROOT);
+        return catalog.stream()
+                .filter(book -> category == null || book.category() == category)
+                .filter(book -> titleKey == null || book.title().toLowerCase(Locale.ROOT).contains(titleKey))
+                .filter(book -> authorKey == null || (book.authorName() != null && book.authorName().toLowerCase(Locale.ROOT).contains(authorKey)))
+                .sorted(byTitle)
+                .limit(limit)
+                .map(IndexedBook::toResponse)
+                .toList();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.lms.loadtest;
+
+import com.example.lms.model.Author;
+import com.example.lms.model.enums.Category;
+import com.example.lms.model.enums.TransactionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Writes a synthetic library straight into the schema with batched inserts. Popularity is Zipfian throughout:
+ * a few authors wrote most of the books, a few titles account for most loans, and a few borrowers for most
+ * borrowing. The open loans sit on the most popular titles, so those are the ones found checked out.
+ * The same spec and seed always produce the same rows.
+ */
+public final class DatasetGenerator {
+
+    static final String[] WORDS = {
+            "river", "shadow", "garden", "empire", "silent", "winter", "glass", "harbor", "iron", "letters",
+            "midnight", "orchard", "paper", "quiet", "storm", "thousand", "velvet", "wild", "yellow", "zero",
+            "amber", "bridge", "copper", "desert", "echo", "falcon", "golden", "hollow", "island", "jasmine"
+    };
+    private static final Category[] CATEGORIES = Category.values();
+    private static final int BATCH_SIZE = 1000;
+
+    public record Spec(int authors, int books, int borrowers, int loans, double openFraction, double skew, long seed) {
+    }
+
+    /**
+     * What the driver needs to address the generated rows. Books are listed by popularity rank, most popular first.
+     */
+    public record Dataset(Spec spec, List<UUID> bookIds, List<String> isbns, List<String> borrowerEmails, List<UUID> openLoanIds) {
+    }
+
+    private DatasetGenerator() {
+    }
+
+    public static Dataset generate(JdbcTemplate jdbcTemplate, Spec spec) {
+        if (spec.authors() < 1 || spec.books() < 1 || spec.borrowers() < 1 || spec.loans() < 0) {
+            throw new IllegalArgumentException("Dataset needs at least one author, book and borrower: " + spec);
+        }
+        SplittableRandom random = new SplittableRandom(spec.seed());
+        LocalDate today = LocalDate.now();
+
+        List<UUID> authorIds = new ArrayList<>(spec.authors());
+        List<Object[]> rows = new ArrayList<>(spec.authors());
+        for (int i = 0; i < spec.authors(); i++) {
+            UUID id = uuid(random);
+            String name = capitalize(word(random)) + " " + capitalize(word(random)) + " " + i;
+            authorIds.add(id);
+            rows.add(new Object[]{id, name, "Biography of " + name, Author.normalizeName(name)});
+        }
+        insert(jdbcTemplate, "INSERT INTO authors (id, name, biography, normalized_name) VALUES (?, ?, ?, ?)", rows);
+
+        List<UUID> borrowerIds = new ArrayList<>(spec.borrowers());
+        List<String> borrowerEmails = new ArrayList<>(spec.borrowers());
+        rows = new ArrayList<>(spec.borrowers());
+        for (int i = 0; i < spec.borrowers(); i++) {
+            UUID id = uuid(random);
+            String email = "reader" + i + "@example.com";
+            borrowerIds.add(id);
+            borrowerEmails.add(email);
+            rows.add(new Object[]{id, "Reader " + i, email, String.format("555-%07d", i)});
+        }
+        insert(jdbcTemplate, "INSERT INTO borrowers (id, name, email, phone_number) VALUES (?, ?, ?, ?)", rows);
+
+        ZipfGenerator bookPopularity = new ZipfGenerator(spec.books(), spec.skew());
+        ZipfGenerator borrowerActivity = new ZipfGenerator(spec.borrowers(), spec.skew());
+
+        // Decide which titles are out before writing the books, so their availability is right from the start.
+        int openLoans = (int) Math.min((long) (spec.loans() * spec.openFraction()), spec.books() / 2);
+        BitSet checkedOut = new BitSet(spec.books());
+        for (int attempts = 0; checkedOut.cardinality() < openLoans && attempts < openLoans * 20; attempts++) {
+            checkedOut.set(bookPopularity.next(random));
+        }
+
+        ZipfGenerator authorOutput = new ZipfGenerator(spec.authors(), spec.skew());
+        List<UUID> bookIds = new ArrayList<>(spec.books());
+        List<String> isbns = new ArrayList<>(spec.books());
+        rows = new ArrayList<>(spec.books());
+        for (int rank = 0; rank < spec.books(); rank++) {
+            UUID id = uuid(random);
+            String isbn = String.format("978-%010d", rank);
+            bookIds.add(id);
+            isbns.add(isbn);
+            rows.add(new Object[]{id, capitalize(word(random)) + " of the " + word(random) + " " + word(random), isbn,
+                    CATEGORIES[random.nextInt(CATEGORIES.length)].name(), authorIds.get(authorOutput.next(random)), !checkedOut.get(rank)});
+        }
+        insert(jdbcTemplate, "INSERT INTO books (id, title, isbn, category, author_id, available) VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        String loanSql = "INSERT INTO borrowing_transactions (id, book_id, borrower_id, borrow_date, return_date, transaction_status) VALUES (?, ?, ?, ?, ?, ?)";
+        List<UUID> openLoanIds = new ArrayList<>(checkedOut.cardinality());
+        rows = new ArrayList<>(BATCH_SIZE);
+        // Current loans: borrowed within the last six weeks, so some are already overdue.
+        for (int rank = checkedOut.nextSetBit(0); rank >= 0; rank = checkedOut.nextSetBit(rank + 1)) {
+            UUID id = uuid(random);
+            LocalDate borrowDate = today.minusDays(random.nextInt(45));
+            openLoanIds.add(id);
+            rows.add(new Object[]{id, bookIds.get(rank), borrowerIds.get(borrowerActivity.next(random)), borrowDate, borrowDate.plusMonths(1),
+                    TransactionStatus.BORROWED.name()});
+        }
+        insert(jdbcTemplate, loanSql, rows);
+        // History: returned loans over the last two years.
+        rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = openLoanIds.size(); i < spec.loans(); i++) {
+            LocalDate borrowDate = today.minusDays(30 + random.nextInt(700));
+            rows.add(new Object[]{uuid(random), bookIds.get(bookPopularity.next(random)), borrowerIds.get(borrowerActivity.next(random)),
+                    borrowDate, borrowDate.plusMonths(1), TransactionStatus.RETURNED.name()});
+            if (rows.size() == BATCH_SIZE) {
+                insert(jdbcTemplate, loanSql, rows);
+                rows.clear();
+            }
+        }
+        insert(jdbcTemplate, loanSql, rows);
+
+        return new Dataset(spec, List.copyOf(bookIds), List.copyOf(isbns), List.copyOf(borrowerEmails), List.copyOf(openLoanIds));
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    static String word(SplittableRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static UUID uuid(SplittableRandom random) {
+        return new UUID(random.nextLong(), random.nextLong());
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.lms.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Every latency of one operation, in nanoseconds. Each worker owns its recorders and they are merged after the
+ * run, so recording is an array store with no synchronization; percentiles are exact rather than bucketed.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private long failures;
+    private boolean sorted;
+
+    void record(long nanos, boolean success) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (!success) {
+            failures++;
+        }
+        sorted = false;
+    }
+
+    void merge(LatencyRecorder other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(samples.length * 2, count + other.count));
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        failures += other.failures;
+        sorted = false;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long failures() {
+        return failures;
+    }
+
+    // Nearest-rank percentile, 0 < percentile <= 100.
+    long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(samples, 0, count);
+            sorted = true;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return samples[Math.max(0, Math.min(count, rank) - 1)];
+    }
+}
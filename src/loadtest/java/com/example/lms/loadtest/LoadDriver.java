@@ -0,0 +1,243 @@
+package com.example.lms.loadtest;
+
+import com.example.lms.loadtest.DatasetGenerator.Dataset;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives {@code concurrency} workers, choosing operations by weight and books and borrowers by the dataset's Zipfian
+ * popularity. Requests sent during the warmup are executed but not recorded. Loans opened by checkouts are fed to
+ * later returns, so the share of books on loan stays roughly steady over the run.
+ *
+ * <p>With no {@code rate} the driver is closed-loop: each worker sends the next request only once the previous one
+ * has answered, and latency is timed from the actual send. A slow server therefore slows the senders down, and the
+ * percentiles are service times that leave out the queueing a real client would have seen (coordinated omission).
+ * With a {@code rate} it is open-loop: requests are scheduled at that fixed rate and each one is timed from its
+ * scheduled send time, so a request delayed because every worker was still busy counts its wait as latency.
+ * The workers then only bound how many requests are in flight; too few for the rate shows up as latency too.
+ */
+public class LoadDriver {
+
+    public enum Operation {
+        SEARCH("GET /books/search"),
+        GET_BOOK("GET /books/{id}"),
+        LIST("GET /books/all"),
+        HISTORY("GET /borrowings/history/book/{id}"),
+        CHECKOUT("POST /borrowings/new"),
+        RETURN("POST /borrowings/batch/return");
+
+        private final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String endpoint() {
+            return endpoint;
+        }
+    }
+
+    // A rate of 0 runs closed-loop.
+    public record Settings(int concurrency, double rate, Duration warmup, Duration duration, Map<Operation, Integer> mix, long seed) {
+
+        public boolean openLoop() {
+            return rate > 0;
+        }
+    }
+
+    public record Result(Map<Operation, LatencyRecorder> latencies, Duration measured) {
+    }
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final Dataset dataset;
+    private final Settings settings;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ZipfGenerator bookPopularity;
+    private final ZipfGenerator borrowerActivity;
+    private final ZipfGenerator searchTerms;
+    private final ConcurrentLinkedQueue<UUID> openLoans;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    public LoadDriver(URI baseUri, Dataset dataset, Settings settings) {
+        this.baseUri = baseUri;
+        this.dataset = dataset;
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.bookPopularity = new ZipfGenerator(dataset.bookIds().size(), dataset.spec().skew());
+        this.borrowerActivity = new ZipfGenerator(dataset.borrowerEmails().size(), dataset.spec().skew());
+        this.searchTerms = new ZipfGenerator(DatasetGenerator.WORDS.length, dataset.spec().skew());
+        this.openLoans = new ConcurrentLinkedQueue<>(dataset.openLoanIds());
+
+        List<Operation> weighted = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Operation, Integer> entry : settings.mix().entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                weighted.add(entry.getKey());
+                cumulative.add(total);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix has no positive weights: " + settings.mix());
+        }
+        this.operations = weighted.toArray(new Operation[0]);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public Result run() throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        AtomicLong scheduled = new AtomicLong();
+        SplittableRandom seeds = new SplittableRandom(settings.seed());
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "load-driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<Map<Operation, LatencyRecorder>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < settings.concurrency(); i++) {
+                SplittableRandom random = seeds.split();
+                results.add(workers.submit(() -> work(random, start, measureFrom, end, scheduled)));
+            }
+            Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, LatencyRecorder>> result : results) {
+                result.get().forEach((operation, recorder) -> merged.computeIfAbsent(operation, key -> new LatencyRecorder()).merge(recorder));
+            }
+            return new Result(merged, Duration.ofNanos(Math.max(0, Math.min(System.nanoTime(), end) - measureFrom)));
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    // Open-loop workers claim the next slot of the shared schedule; closed-loop ones send as soon as they are free.
+    private Map<Operation, LatencyRecorder> work(SplittableRandom random, long start, long measureFrom, long end, AtomicLong scheduled) {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        double intervalNanos = settings.openLoop() ? 1e9 / settings.rate() : 0;
+        long now;
+        while (true) {
+            if (settings.openLoop()) {
+                now = start + (long) (scheduled.getAndIncrement() * intervalNanos);
+                if (now >= end) {
+                    break;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(now - System.nanoTime());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            } else if ((now = System.nanoTime()) >= end) {
+                break;
+            }
+            Operation operation = pick(random);
+            UUID loanId = null;
+            if (operation == Operation.RETURN && (loanId = openLoans.poll()) == null) {
+                operation = Operation.CHECKOUT;
+            }
+            HttpRequest request = request(operation, random, loanId);
+            boolean success;
+            long started = settings.openLoop() ? now : System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                success = handle(operation, response);
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long elapsed = System.nanoTime() - started;
+            if (now >= measureFrom) {
+                recorders.get(operation).record(elapsed, success);
+            }
+        }
+        return recorders;
+    }
+
+    // Refused checkouts (the title is out) surface as errors in this API and are counted as failures.
+    private boolean handle(Operation operation, HttpResponse<String> response) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            return false;
+        }
+        if (operation == Operation.CHECKOUT) {
+            openLoans.offer(UUID.fromString(objectMapper.readTree(response.body()).get("id").asText()));
+        } else if (operation == Operation.RETURN) {
+            JsonNode succeeded = objectMapper.readTree(response.body()).get("succeeded");
+            return succeeded != null && succeeded.asInt() == 1;
+        }
+        return true;
+    }
+
+    private HttpRequest request(Operation operation, SplittableRandom random, UUID loanId) {
+        return switch (operation) {
+            case SEARCH -> get("/books/search?title=" + DatasetGenerator.WORDS[searchTerms.next(random)] + "&limit=20");
+            case GET_BOOK -> get("/books/" + popularBook(random));
+            // A random keyset position, so pages are spread over the whole catalog.
+            case LIST -> get("/books/all?size=50&after=" + dataset.bookIds().get(random.nextInt(dataset.bookIds().size())));
+            // The popular titles have the longest histories, so these are the slow reads.
+            case HISTORY -> get("/borrowings/history/book/" + popularBook(random) + "?limit=200");
+            case CHECKOUT -> post("/borrowings/new", "{\"isbn\":\"" + dataset.isbns().get(bookPopularity.next(random))
+                    + "\",\"borrowerEmail\":\"" + dataset.borrowerEmails().get(borrowerActivity.next(random)) + "\"}");
+            case RETURN -> post("/borrowings/batch/return", "{\"transactionIds\":[\"" + loanId + "\"]}");
+        };
+    }
+
+    private UUID popularBook(SplittableRandom random) {
+        return dataset.bookIds().get(bookPopularity.next(random));
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.lms.loadtest;
+
+import com.example.lms.loadtest.DatasetGenerator.Spec;
+import com.example.lms.loadtest.LoadDriver.Operation;
+import com.example.lms.loadtest.LoadDriver.Result;
+import com.example.lms.loadtest.LoadDriver.Settings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles per endpoint for one run, printed as a table and saved as JSON
+ * under a label so runs of different builds can be compared side by side. Latencies are in milliseconds.
+ * A {@code rate} of 0 marks a closed-loop run, whose latencies are service times that leave out queueing
+ * (see {@link LoadDriver}); only compare runs made in the same mode.
+ */
+public record LoadReport(String label, String startedAt, String javaVersion, Spec dataset, int concurrency, double rate,
+                         double warmupSeconds, double measuredSeconds, Map<Operation, Integer> mix,
+                         List<Row> endpoints, Row total) {
+
+    public record Row(String endpoint, long requests, long failures, double throughput,
+                      double p50, double p95, double p99, double max) {
+    }
+
+    public static LoadReport of(String label, Instant startedAt, Spec dataset, Settings settings, Result result) {
+        double seconds = result.measured().toNanos() / 1e9;
+        List<Row> endpoints = new ArrayList<>();
+        LatencyRecorder all = new LatencyRecorder();
+        for (Map.Entry<Operation, LatencyRecorder> entry : result.latencies().entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            if (recorder.count() > 0) {
+                endpoints.add(row(entry.getKey().endpoint(), recorder, seconds));
+                all.merge(recorder);
+            }
+        }
+        return new LoadReport(label, startedAt.toString(), Runtime.version().toString(), dataset, settings.concurrency(),
+                settings.rate(), settings.warmup().toMillis() / 1e3, seconds, settings.mix(), endpoints, row("all", all, seconds));
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%nLoad test '%s': %d workers, %s, %.1f s measured after %.1f s warmup%n", label, concurrency,
+                rate > 0 ? String.format("open loop at %.0f req/s, latency from scheduled send", rate)
+                        : "closed loop, latency is service time without queueing", measuredSeconds, warmupSeconds);
+        out.printf("Dataset: %d authors, %d books, %d borrowers, %d loans (skew %.2f, seed %d)%n%n",
+                dataset.authors(), dataset.books(), dataset.borrowers(), dataset.loans(), dataset.skew(), dataset.seed());
+        String format = "%-34s %10s %9s %10s %9s %9s %9s %9s%n";
+        out.printf(format, "endpoint", "requests", "failures", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Row row : endpoints) {
+            print(out, row);
+        }
+        print(out, total);
+    }
+
+    /**
+     * Prints this run against {@code baseline} endpoint by endpoint: throughput, p50 and p99, each with the change in percent.
+     */
+    public void printComparison(LoadReport baseline, PrintStream out) {
+        out.printf("%nCompared with '%s':%n%n", baseline.label());
+        if ((rate > 0) != (baseline.rate() > 0)) {
+            out.printf("(one run is open-loop and the other closed-loop, so their latencies measure different things)%n%n");
+        }
+        String format = "%-34s %22s %22s %22s%n";
+        out.printf(format, "endpoint", "req/s", "p50 ms", "p99 ms");
+        Map<String, Row> before = new LinkedHashMap<>();
+        baseline.endpoints().forEach(row -> before.put(row.endpoint(), row));
+        before.put(baseline.total().endpoint(), baseline.total());
+        List<Row> after = new ArrayList<>(endpoints);
+        after.add(total);
+        for (Row row : after) {
+            Row old = before.get(row.endpoint());
+            if (old != null) {
+                out.printf(format, row.endpoint(), change(old.throughput(), row.throughput()), change(old.p50(), row.p50()), change(old.p99(), row.p99()));
+            }
+        }
+    }
+
+    public static LoadReport read(Path file) throws IOException {
+        return new ObjectMapper().readValue(file.toFile(), LoadReport.class);
+    }
+
+    public Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("loadtest-" + label.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+        return file;
+    }
+
+    private static void print(PrintStream out, Row row) {
+        out.printf("%-34s %10d %9d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                row.endpoint(), row.requests(), row.failures(), row.throughput(), row.p50(), row.p95(), row.p99(), row.max());
+    }
+
+    private static Row row(String endpoint, LatencyRecorder recorder, double seconds) {
+        return new Row(endpoint, recorder.count(), recorder.failures(), seconds > 0 ? recorder.count() / seconds : 0,
+                millis(recorder.percentile(50)), millis(recorder.percentile(95)), millis(recorder.percentile(99)), millis(recorder.percentile(100)));
+    }
+
+    private static String change(double before, double after) {
+        String percent = before == 0 ? "n/a" : String.format("%+.1f%%", (after - before) / before * 100);
+        return String.format("%.1f -> %.1f (%s)", before, after, percent);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e4) / 100.0;
+    }
+}
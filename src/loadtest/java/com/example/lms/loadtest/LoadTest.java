@@ -0,0 +1,133 @@
+package com.example.lms.loadtest;
+
+import com.example.lms.LmsApplication;
+import com.example.lms.loadtest.DatasetGenerator.Dataset;
+import com.example.lms.loadtest.DatasetGenerator.Spec;
+import com.example.lms.loadtest.LoadDriver.Operation;
+import com.example.lms.loadtest.LoadDriver.Settings;
+import com.example.lms.stats.CirculationStats;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Starts the application on a random port (on the {@code local} profile unless another is given), seeds it with
+ * a synthetic dataset, drives mixed traffic at it and reports per-endpoint throughput and percentiles.
+ *
+ * <p>Harness options, all {@code --name=value}: {@code authors, books, borrowers, loans, open-fraction, skew,
+ * seed, concurrency, rate, warmup, duration, mix} (e.g. {@code search:30,get:30,list:10,history:5,checkout:15,return:10}),
+ * {@code label}, {@code report-dir} and {@code compare} (a previous report to print the differences against).
+ * {@code rate} (requests per second) switches the driver to open-loop; without it the run is closed-loop and
+ * reports service times, see {@link LoadDriver}.
+ * Any other argument is passed to Spring, e.g. {@code --spring.profiles.active=local,virtual-threads}, or
+ * {@code --spring.profiles.active=default} to run against the configured PostgreSQL, which must be empty.
+ */
+public final class LoadTest {
+
+    private static final Set<String> OPTIONS = Set.of("authors", "books", "borrowers", "loans", "open-fraction", "skew", "seed",
+            "concurrency", "rate", "warmup", "duration", "mix", "label", "report-dir", "compare");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = arg.startsWith("--") && equals > 2 ? arg.substring(2, equals) : null;
+            if (name != null && OPTIONS.contains(name)) {
+                options.put(name, arg.substring(equals + 1));
+            } else {
+                springArgs.add(arg);
+            }
+        }
+
+        Spec spec = new Spec(
+                Integer.parseInt(options.getOrDefault("authors", "2000")),
+                Integer.parseInt(options.getOrDefault("books", "50000")),
+                Integer.parseInt(options.getOrDefault("borrowers", "10000")),
+                Integer.parseInt(options.getOrDefault("loans", "200000")),
+                Double.parseDouble(options.getOrDefault("open-fraction", "0.05")),
+                Double.parseDouble(options.getOrDefault("skew", "1.0")),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+        Settings settings = new Settings(
+                Integer.parseInt(options.getOrDefault("concurrency", "32")),
+                Double.parseDouble(options.getOrDefault("rate", "0")),
+                DurationStyle.detectAndParse(options.getOrDefault("warmup", "15s")),
+                DurationStyle.detectAndParse(options.getOrDefault("duration", "60s")),
+                mix(options.getOrDefault("mix", "search:30,get:30,list:10,history:5,checkout:15,return:10")),
+                spec.seed());
+        Instant startedAt = Instant.now();
+        String label = options.getOrDefault("label",
+                DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC).format(startedAt));
+
+        // Seed once the context is up but before ApplicationReadyEvent, so the filters and trackers
+        // that load at startup see the generated rows.
+        AtomicReference<Dataset> dataset = new AtomicReference<>();
+        SpringApplication application = new SpringApplication(LmsApplication.class);
+        application.setDefaultProperties(Map.of(
+                "spring.profiles.default", "local",
+                "server.port", "0",
+                "logging.level.root", "WARN",
+                // Refused checkouts are 500s with a stack trace each; the driver counts them as failures instead.
+                "logging.level.org.apache.catalina.core.ContainerBase", "OFF"));
+        application.addListeners((ApplicationListener<ApplicationEvent>) event -> {
+            if (event instanceof ApplicationStartedEvent started) {
+                long start = System.nanoTime();
+                ConfigurableApplicationContext context = started.getApplicationContext();
+                dataset.set(DatasetGenerator.generate(context.getBean(JdbcTemplate.class), spec));
+                context.getBean(CirculationStats.class).reconcile();
+                System.out.printf("Seeded %s in %d ms%n", spec, (System.nanoTime() - start) / 1_000_000);
+            }
+        });
+
+        try (ConfigurableApplicationContext context = application.run(springArgs.toArray(new String[0]))) {
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/");
+            System.out.printf("Driving %s with %d workers (%s) for %s after %s warmup%n", baseUri, settings.concurrency(),
+                    settings.openLoop() ? String.format("open loop at %.0f req/s", settings.rate()) : "closed loop",
+                    settings.duration(), settings.warmup());
+            LoadDriver.Result result = new LoadDriver(baseUri, dataset.get(), settings).run();
+
+            LoadReport report = LoadReport.of(label, startedAt, spec, settings, result);
+            report.print(System.out);
+            Path file = report.write(Path.of(options.getOrDefault("report-dir", "build/loadtest")));
+            System.out.printf("%nReport written to %s%n", file.toAbsolutePath());
+            if (options.containsKey("compare")) {
+                report.printComparison(LoadReport.read(Path.of(options.get("compare"))), System.out);
+            }
+        }
+    }
+
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.trim().split(":");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in mix, got '" + part + "'");
+            }
+            String name = weight[0].trim().toUpperCase(Locale.ROOT);
+            mix.put(Operation.valueOf(name.equals("GET") ? "GET_BOOK" : name), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+}
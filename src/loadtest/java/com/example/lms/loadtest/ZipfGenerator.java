@@ -0,0 +1,41 @@
+package com.example.lms.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws ranks {@code 0..n-1} with probability proportional to {@code 1 / (rank + 1)^exponent}, rank 0 being
+ * the most popular. The cumulative distribution is computed once, so a draw is one binary search.
+ * An exponent of 0 is uniform; around 1 a few hundred titles out of tens of thousands take most of the traffic.
+ */
+public final class ZipfGenerator {
+
+    private final double[] cdf;
+
+    public ZipfGenerator(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Zipf range must not be empty");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Zipf exponent must not be negative: " + exponent);
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cdf[rank] /= sum;
+        }
+    }
+
+    public int next(RandomGenerator random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return index >= 0 ? index : Math.min(-index - 1, cdf.length - 1);
+    }
+
+    public int size() {
+        return cdf.length;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.lms.archive;
+
+import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
+import com.example.lms.model.enums.TransactionStatus;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Storage for returned loans moved out of {@code borrowing_transactions}. On PostgreSQL the archive is
+ * range-partitioned by borrow month, one partition per month created on first use; other databases get
+ * a plain table with the same columns. The history reads span both tables in one statement.
+ */
+@Repository
+public class BorrowingArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowingArchive.class);
+
+    static final String TABLE = "borrowing_transactions_archive";
+
+    private static final String COLUMNS = "id, book_id, borrower_id, borrow_date, return_date, transaction_status";
+
+    private static final String HISTORY_SQL =
+            "SELECT " + COLUMNS + " FROM borrowing_transactions WHERE %1$s = :key " +
+            "UNION ALL " +
+            "SELECT " + COLUMNS + " FROM " + TABLE + " WHERE %1$s = :key " +
+            "ORDER BY borrow_date DESC, id LIMIT :limit";
+
+    private static final String ALL_SQL =
+            "SELECT " + COLUMNS + " FROM borrowing_transactions " +
+            "UNION ALL " +
+            "SELECT " + COLUMNS + " FROM " + TABLE;
+
+    private static final RowMapper<BorrowingTransactionResponseDTO> ROW_MAPPER = (rs, rowNum) -> new BorrowingTransactionResponseDTO(
+            rs.getObject("id", UUID.class),
+            rs.getObject("book_id", UUID.class),
+            rs.getObject("borrower_id", UUID.class),
+            rs.getObject("borrow_date", LocalDate.class),
+            rs.getObject("return_date", LocalDate.class),
+            TransactionStatus.valueOf(rs.getString("transaction_status"))
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private boolean partitioned;
+    private final Set<YearMonth> partitions = ConcurrentHashMap.newKeySet();
+
+    public BorrowingArchive(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void createSchema() {
+        String product = jdbcTemplate.getJdbcTemplate().execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        partitioned = "PostgreSQL".equals(product);
+
+        // No foreign keys, so archived rows never block deletes on the hot tables; services remove them explicitly.
+        jdbcTemplate.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+                "id UUID NOT NULL, " +
+                "book_id UUID NOT NULL, " +
+                "borrower_id UUID, " +
+                "borrow_date DATE NOT NULL, " +
+                "return_date DATE NOT NULL, " +
+                "transaction_status VARCHAR(255) NOT NULL, " +
+                "archived_at TIMESTAMP NOT NULL, " +
+                "PRIMARY KEY (id, borrow_date))" +
+                (partitioned ? " PARTITION BY RANGE (borrow_date)" : ""));
+        jdbcTemplate.getJdbcTemplate().execute("CREATE INDEX IF NOT EXISTS idx_borrowings_archive_book_id ON " + TABLE + " (book_id)");
+        jdbcTemplate.getJdbcTemplate().execute("CREATE INDEX IF NOT EXISTS idx_borrowings_archive_borrower_id ON " + TABLE + " (borrower_id)");
+        log.info("Borrowing archive ready ({})", partitioned ? "partitioned by borrow month" : "unpartitioned");
+    }
+
+    /**
+     * Creates the monthly partitions covering {@code months} if they do not exist yet. A no-op when unpartitioned.
+     */
+    public void ensurePartitions(Collection<YearMonth> months) {
+        if (!partitioned) {
+            return;
+        }
+        for (YearMonth month : months) {
+            if (partitions.contains(month)) {
+                continue;
+            }
+            jdbcTemplate.getJdbcTemplate().execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s_%d_%02d PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    TABLE, month.getYear(), month.getMonthValue(), TABLE, month.atDay(1), month.plusMonths(1).atDay(1)));
+            partitions.add(month);
+        }
+    }
+
+    /**
+     * Returns the ids and borrow months of up to {@code limit} returned loans whose return date is before {@code cutoff}.
+     */
+    public List<ArchiveCandidate> findCandidates(LocalDate cutoff, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, borrow_date FROM borrowing_transactions " +
+                "WHERE transaction_status = 'RETURNED' AND return_date < :cutoff LIMIT :limit",
+                new MapSqlParameterSource("cutoff", cutoff).addValue("limit", limit),
+                (rs, rowNum) -> new ArchiveCandidate(rs.getObject("id", UUID.class), YearMonth.from(rs.getObject("borrow_date", LocalDate.class))));
+    }
+
+    /**
+     * Copies the given returned loans into the archive and deletes them from the hot table. Must run inside
+     * a transaction so a loan is always in exactly one of the two tables: the rows are locked first, so a
+     * loan updated concurrently is either moved as it was locked or, if no longer returned, left alone.
+     */
+    public int move(Collection<UUID> ids) {
+        List<UUID> locked = jdbcTemplate.queryForList(
+                "SELECT id FROM borrowing_transactions WHERE id IN (:ids) AND transaction_status = 'RETURNED' FOR UPDATE",
+                new MapSqlParameterSource("ids", ids), UUID.class);
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", locked).addValue("archivedAt", Timestamp.from(Instant.now()));
+        jdbcTemplate.update(
+                "INSERT INTO " + TABLE + " (" + COLUMNS + ", archived_at) " +
+                "SELECT " + COLUMNS + ", :archivedAt FROM borrowing_transactions WHERE id IN (:ids)", params);
+        return jdbcTemplate.update("DELETE FROM borrowing_transactions WHERE id IN (:ids)", params);
+    }
+
+    public Optional<BorrowingTransactionResponseDTO> findById(UUID id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM " + TABLE + " WHERE id = :id",
+                new MapSqlParameterSource("id", id), ROW_MAPPER).stream().findFirst();
+    }
+
+    // Hot and archived loans of one book or borrower, newest first.
+    public List<BorrowingTransactionResponseDTO> findHistoryByBookId(UUID bookId, int limit) {
+        return jdbcTemplate.query(String.format(HISTORY_SQL, "book_id"),
+                new MapSqlParameterSource("key", bookId).addValue("limit", limit), ROW_MAPPER);
+    }
+
+    public List<BorrowingTransactionResponseDTO> findHistoryByBorrowerId(UUID borrowerId, int limit) {
+        return jdbcTemplate.query(String.format(HISTORY_SQL, "borrower_id"),
+                new MapSqlParameterSource("key", borrowerId).addValue("limit", limit), ROW_MAPPER);
+    }
+
+    // Every loan, hot and archived.
+    public List<BorrowingTransactionResponseDTO> findAllWithHot() {
+        return jdbcTemplate.query(ALL_SQL, ROW_MAPPER);
+    }
+
+    /**
+     * Streams every loan, hot and archived, off a forward-only cursor. Must be consumed inside a transaction
+     * (PostgreSQL only uses a cursor with autocommit off) and closed by the caller.
+     */
+    public Stream<BorrowingTransactionResponseDTO> streamAllWithHot() {
+        return jdbcTemplate.getJdbcTemplate().queryForStream(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ALL_SQL);
+            statement.setFetchSize(1000);
+            return statement;
+        }, ROW_MAPPER);
+    }
+
+    public int deleteById(UUID id) {
+        return jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE id = :id", new MapSqlParameterSource("id", id));
+    }
+
+    public int deleteByBookIds(Collection<UUID> bookIds) {
+        return jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE book_id IN (:ids)", new MapSqlParameterSource("ids", bookIds));
+    }
+
+    public int deleteByBorrowerIds(Collection<UUID> borrowerIds) {
+        return jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE borrower_id IN (:ids)", new MapSqlParameterSource("ids", borrowerIds));
+    }
+
+    // PostgreSQL truncates inside the caller's transaction; elsewhere TRUNCATE may commit it, so rows are deleted.
+    public void deleteAll() {
+        jdbcTemplate.getJdbcTemplate().execute((partitioned ? "TRUNCATE TABLE " : "DELETE FROM ") + TABLE);
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM " + TABLE, Long.class);
+        return count != null ? count : 0;
+    }
+
+    public record ArchiveCandidate(UUID id, YearMonth borrowMonth) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.lms.archive;
+
+import com.example.lms.dto.borrowings.ArchiveRunDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves returned loans older than {@code lms.archive.min-age} from the hot table into {@link BorrowingArchive},
+ * one chunk per transaction, so the hot table and its indexes only hold recent and open loans.
+ */
+@Component
+public class BorrowingArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowingArchiver.class);
+
+    private final BorrowingArchive borrowingArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int chunkSize;
+
+    private final ReentrantLock running = new ReentrantLock();
+
+    public BorrowingArchiver(BorrowingArchive borrowingArchive,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${lms.archive.enabled:true}") boolean enabled,
+                             @Value("${lms.archive.min-age:90d}") Duration minAge,
+                             @Value("${lms.archive.chunk-size:5000}") int chunkSize) {
+        this.borrowingArchive = borrowingArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${lms.archive.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * Archives every eligible loan. Only one run proceeds at a time; a concurrent call returns immediately.
+     */
+    public ArchiveRunDTO run() {
+        LocalDate cutoff = LocalDate.now().minusDays(minAge.toDays());
+        if (!running.tryLock()) {
+            return new ArchiveRunDTO(cutoff, 0, 0, 0, true);
+        }
+        try {
+            long start = System.nanoTime();
+            long archived = 0;
+            int chunks = 0;
+            List<BorrowingArchive.ArchiveCandidate> candidates;
+            do {
+                candidates = borrowingArchive.findCandidates(cutoff, chunkSize);
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                List<UUID> ids = candidates.stream().map(BorrowingArchive.ArchiveCandidate::id).toList();
+                Set<YearMonth> months = new HashSet<>();
+                candidates.forEach(candidate -> months.add(candidate.borrowMonth()));
+
+                // Partitions are created before the move, outside its transaction.
+                borrowingArchive.ensurePartitions(months);
+                Integer moved = transactionTemplate.execute(status -> borrowingArchive.move(ids));
+                archived += moved != null ? moved : 0;
+                chunks++;
+            } while (candidates.size() == chunkSize);
+
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            if (archived > 0) {
+                log.info("Archived {} returned loans due before {} in {} chunks ({} ms)", archived, cutoff, chunks, durationMillis);
+            }
+            return new ArchiveRunDTO(cutoff, archived, chunks, durationMillis, false);
+        } finally {
+            running.unlock();
+        }
+    }
+}
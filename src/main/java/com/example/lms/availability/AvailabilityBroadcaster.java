@@ -0,0 +1,325 @@
+package com.example.lms.availability;
+
+import com.example.lms.dto.book.AvailabilityChangeDTO;
+import com.example.lms.event.BookAvailabilityChangedEvent;
+import com.example.lms.event.BookDeletedEvent;
+import com.example.lms.event.BookSavedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed book availability changes to Server-Sent Event subscribers. Changes are coalesced per book
+ * over a short window, so a book that flips several times within it is sent once with its latest state, and each
+ * window goes out as a single event per subscriber. One scheduler thread builds the events and queues them per
+ * subscriber; a small sender pool writes them, one drain at a time per subscriber, so a slow client only delays
+ * itself. A subscriber whose queue overflows, or whose write has been blocked past the write timeout, is dropped;
+ * open streams hold no thread while idle. Events are not replayed: clients should re-read the books they show after
+ * (re)connecting.
+ */
+@Component
+public class AvailabilityBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityBroadcaster.class);
+
+    static final String EVENT_NAME = "availability";
+
+    private final ObjectMapper objectMapper;
+    private final Duration window;
+    private final Duration heartbeatInterval;
+    private final Duration streamTimeout;
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final Duration writeTimeout;
+
+    // Latest state per book since the last window
+    private final Map<UUID, Boolean> pending = new ConcurrentHashMap<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "availability-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Executor senders;
+
+    @Autowired
+    public AvailabilityBroadcaster(ObjectMapper objectMapper,
+                                   @Value("${lms.availability.coalesce-window:250ms}") Duration window,
+                                   @Value("${lms.availability.heartbeat-interval:30s}") Duration heartbeatInterval,
+                                   @Value("${lms.availability.stream-timeout:30m}") Duration streamTimeout,
+                                   @Value("${lms.availability.max-subscribers:10000}") int maxSubscribers,
+                                   @Value("${lms.availability.subscriber-queue:16}") int queueCapacity,
+                                   @Value("${lms.availability.write-timeout:10s}") Duration writeTimeout,
+                                   @Value("${lms.availability.sender-threads:4}") int senderThreads) {
+        this(objectMapper, window, heartbeatInterval, streamTimeout, maxSubscribers, queueCapacity, writeTimeout,
+                senderPool(senderThreads));
+    }
+
+    AvailabilityBroadcaster(ObjectMapper objectMapper, Duration window, Duration heartbeatInterval, Duration streamTimeout,
+                            int maxSubscribers, int queueCapacity, Duration writeTimeout, Executor senders) {
+        this.objectMapper = objectMapper;
+        this.window = window;
+        this.heartbeatInterval = heartbeatInterval;
+        this.streamTimeout = streamTimeout;
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = queueCapacity;
+        this.writeTimeout = writeTimeout;
+        this.senders = senders;
+    }
+
+    @PostConstruct
+    public void start() {
+        schedule(this::flush, window);
+        schedule(this::heartbeat, heartbeatInterval);
+        schedule(this::dropStalled, writeTimeout);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (senders instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Opens a stream of availability changes, limited to {@code bookIds} when that is non-empty.
+     * The stream ends after the configured timeout; EventSource clients reconnect on their own.
+     */
+    public SseEmitter subscribe(Set<UUID> bookIds) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many availability subscribers, retry later.");
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        register(emitter, bookIds);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    void register(SseEmitter emitter, Set<UUID> bookIds) {
+        Subscriber subscriber = new Subscriber(emitter, bookIds == null || bookIds.isEmpty() ? null : Set.copyOf(bookIds), queueCapacity);
+        emitter.onCompletion(() -> drop(subscriber));
+        emitter.onTimeout(() -> drop(subscriber));
+        emitter.onError(error -> drop(subscriber));
+        subscribers.add(subscriber);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(BookAvailabilityChangedEvent event) {
+        pending.put(event.bookId(), event.available());
+    }
+
+    // New books, and edits that set the availability flag directly.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        if (event.previous() == null || event.previous().isAvailable() != event.current().isAvailable()) {
+            pending.put(event.current().getId(), event.current().isAvailable());
+        }
+    }
+
+    // A deleted book is off the shelf for good.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookDeleted(BookDeletedEvent event) {
+        pending.put(event.book().getId(), false);
+    }
+
+    /**
+     * Sends everything coalesced since the last call. Called by the scheduler once per window.
+     */
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<AvailabilityChangeDTO> changes = new ArrayList<>(pending.size());
+        for (Map.Entry<UUID, Boolean> entry : pending.entrySet()) {
+            // Conditional remove: a change that lands meanwhile stays pending for the next window.
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                changes.add(new AvailabilityChangeDTO(entry.getKey(), entry.getValue()));
+            }
+        }
+        if (changes.isEmpty() || subscribers.isEmpty()) {
+            return;
+        }
+        long id = sequence.incrementAndGet();
+        // Unfiltered subscribers all get the same payload, so it is serialized once.
+        String all = null;
+        for (Subscriber subscriber : subscribers) {
+            String payload;
+            if (subscriber.bookIds == null) {
+                payload = all != null ? all : (all = toJson(changes));
+            } else {
+                List<AvailabilityChangeDTO> matching = changes.stream()
+                        .filter(change -> subscriber.bookIds.contains(change.getBookId()))
+                        .toList();
+                if (matching.isEmpty()) {
+                    continue;
+                }
+                payload = toJson(matching);
+            }
+            enqueue(subscriber, SseEmitter.event().id(Long.toString(id)).name(EVENT_NAME).data(payload, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    // Lets proxies keep idle streams open and finds clients that went away without closing.
+    void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, SseEmitter.event().comment("keep-alive"));
+        }
+    }
+
+    // A write blocked this long means the client stopped reading; its stream is ended so it can reconnect.
+    void dropStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStarted;
+            if (started != 0 && now - started > writeTimeout.toNanos() && drop(subscriber)) {
+                subscriber.emitter.completeWithError(new IOException("Availability stream write timed out"));
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.queue.offer(event)) {
+            // Fell behind by a whole queue: end the stream rather than hold events for it.
+            if (drop(subscriber)) {
+                subscriber.emitter.complete();
+            }
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                send(subscriber, event);
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event queued after the last poll but before the flag was cleared would otherwise wait for the next one.
+        if (!subscriber.closed && !subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        subscriber.sendStarted = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            if (drop(subscriber)) {
+                subscriber.emitter.completeWithError(e);
+            }
+        } catch (RuntimeException e) {
+            // Keep the sender alive for everybody else.
+            drop(subscriber);
+            log.warn("Dropping availability subscriber after send failure", e);
+        } finally {
+            subscriber.sendStarted = 0;
+        }
+    }
+
+    // True for the caller that actually removed the subscriber, which is the one to end its stream.
+    private boolean drop(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.queue.clear();
+        return subscribers.remove(subscriber);
+    }
+
+    // An exception would cancel the periodic task, so it is logged instead.
+    private void schedule(Runnable task, Duration interval) {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Availability stream task failed", e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private String toJson(List<AvailabilityChangeDTO> changes) {
+        try {
+            return objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ExecutorService senderPool(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "availability-send-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<UUID> bookIds;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // System.nanoTime() when the current write began, 0 while idle
+        private volatile long sendStarted;
+
+        private Subscriber(SseEmitter emitter, Set<UUID> bookIds, int queueCapacity) {
+            this.emitter = emitter;
+            this.bookIds = bookIds;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.lms.bloom;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe Bloom filter over strings. Sized from the expected number of keys and the target
+ * false-positive rate; uses double hashing over one 64-bit hash to derive the probe positions.
+ * Keys can only be added, so a removed key keeps answering "maybe" until the next rebuild.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final LongAdder insertions = new LongAdder();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitSize = Math.max(64, (bits + 63) / 64 * 64);
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact(bitSize / 64));
+    }
+
+    public void put(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = index(h1 + (long) i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+        insertions.increment();
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = index(h1 + (long) i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    public long insertions() {
+        return insertions.sum();
+    }
+
+    // Probability of a false positive given how full the filter actually is.
+    public double estimatedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) set / bitSize, hashFunctions);
+    }
+
+    private long index(long combined) {
+        return (combined & Long.MAX_VALUE) % bitSize;
+    }
+
+    // FNV-1a over the chars, finished with the MurmurHash3 64-bit mix.
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.lms.bloom;
+
+import com.example.lms.dto.diagnostics.BloomFilterStatsDTO;
+import com.example.lms.event.BookSavedEvent;
+import com.example.lms.event.BorrowerSavedEvent;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowerRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters in front of the uniqueness checks on book ISBNs and borrower e-mails and phone numbers.
+ * A definite "no" skips the repository; a "maybe" falls through to it. Filters are rebuilt from the
+ * database at startup, and keys are added after commit. A rebuild publishes its filter as {@code building}
+ * before it starts streaming, so a row committed after the stream's snapshot is added to the new filter by
+ * its own listener. Between a commit and its listener a key can still read as absent; the unique constraints
+ * on the columns remain the authority, and the filters only save the lookup.
+ */
+@Component
+public class UniqueKeyFilters {
+
+    public enum Key { ISBN, EMAIL, PHONE_NUMBER }
+
+    private static final Logger log = LoggerFactory.getLogger(UniqueKeyFilters.class);
+
+    private final BookRepository bookRepository;
+    private final BorrowerRepository borrowerRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Map<Key, Slot> slots = new EnumMap<>(Key.class);
+
+    public UniqueKeyFilters(BookRepository bookRepository,
+                            BorrowerRepository borrowerRepository,
+                            @Value("${lms.bloom.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${lms.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.bookRepository = bookRepository;
+        this.borrowerRepository = borrowerRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        for (Key key : Key.values()) {
+            slots.put(key, new Slot());
+        }
+    }
+
+    /**
+     * Returns whether {@code value} exists, consulting {@code repositoryCheck} only when the filter
+     * cannot rule it out.
+     */
+    public boolean exists(Key key, String value, Predicate<String> repositoryCheck) {
+        Slot slot = slots.get(key);
+        BloomFilter filter = slot.current;
+        if (filter != null && !filter.mightContain(value)) {
+            slot.definiteNegatives.increment();
+            return false;
+        }
+        boolean exists = repositoryCheck.test(value);
+        if (filter != null) {
+            slot.maybes.increment();
+            if (!exists) {
+                slot.falsePositives.increment();
+            }
+        }
+        return exists;
+    }
+
+    public List<BloomFilterStatsDTO> stats() {
+        List<BloomFilterStatsDTO> stats = new ArrayList<>();
+        for (Map.Entry<Key, Slot> entry : slots.entrySet()) {
+            Slot slot = entry.getValue();
+            BloomFilter filter = slot.current;
+            stats.add(new BloomFilterStatsDTO(
+                    entry.getKey().name(),
+                    filter != null,
+                    filter != null ? filter.bitSize() : 0,
+                    filter != null ? filter.hashFunctions() : 0,
+                    filter != null ? filter.insertions() : 0,
+                    falsePositiveRate,
+                    filter != null ? filter.estimatedFalsePositiveRate() : 1.0,
+                    slot.definiteNegatives.sum(),
+                    slot.maybes.sum(),
+                    slot.falsePositives.sum()
+            ));
+        }
+        return stats;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        rebuild(Key.ISBN, bookRepository.count(), bookRepository::streamAllIsbns);
+        rebuild(Key.EMAIL, borrowerRepository.count(), borrowerRepository::streamAllEmails);
+        rebuild(Key.PHONE_NUMBER, borrowerRepository.count(), borrowerRepository::streamAllPhoneNumbers);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        put(Key.ISBN, event.current().getIsbn());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowerSaved(BorrowerSavedEvent event) {
+        put(Key.EMAIL, event.current().getEmail());
+        put(Key.PHONE_NUMBER, event.current().getPhoneNumber());
+    }
+
+    private void put(Key key, String value) {
+        Slot slot = slots.get(key);
+        // A rebuild in progress may already have streamed past this row. Reading building first means a rebuild
+        // finishing in between is seen through current, which it sets before clearing building.
+        BloomFilter building = slot.building;
+        BloomFilter current = slot.current;
+        if (building != null) {
+            building.put(value);
+        }
+        if (current != null && current != building) {
+            current.put(value);
+        }
+    }
+
+    private void rebuild(Key key, long rows, Supplier<Stream<String>> keys) {
+        long start = System.nanoTime();
+        Slot slot = slots.get(key);
+        // Leave headroom so the filter stays near its target rate as the table grows.
+        BloomFilter filter = new BloomFilter(Math.max(expectedInsertions, rows * 2), falsePositiveRate);
+        slot.building = filter;
+        try (Stream<String> values = keys.get()) {
+            values.forEach(filter::put);
+        }
+        slot.current = filter;
+        slot.building = null;
+        log.info("{} filter built from {} keys in {} ms ({} bits, {} hashes, estimated false-positive rate {})",
+                key, filter.insertions(), (System.nanoTime() - start) / 1_000_000,
+                filter.bitSize(), filter.hashFunctions(), String.format("%.5f", filter.estimatedFalsePositiveRate()));
+    }
+
+    private static final class Slot {
+        private volatile BloomFilter current;
+        private volatile BloomFilter building;
+        private final LongAdder definiteNegatives = new LongAdder();
+        private final LongAdder maybes = new LongAdder();
+        private final LongAdder falsePositives = new LongAdder();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.lms.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many requests run at once, with a smaller cap of its own for the slow paths (searches, loan history),
+ * so a burst of slow reads cannot take every JDBC connection from the quick ones. A request waits up to the queue
+ * timeout for a slot and is then turned away with 503 and {@code Retry-After}, rather than queueing on the
+ * connection pool. On platform threads Tomcat's worker pool also bounds concurrency; on virtual threads nothing
+ * else does, so this is the backpressure. Actuator endpoints bypass it, so health checks and metric scrapes
+ * still answer while the bulkheads are full.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class BulkheadFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final boolean enabled;
+    private final List<String> slowPaths;
+    private final String actuatorPath;
+    private final int maxRequests;
+    private final int maxSlowRequests;
+    private final long queueTimeoutNanos;
+    private final Semaphore requests;
+    private final Semaphore slowRequests;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rejectedSlow = new LongAdder();
+
+    public BulkheadFilter(@Value("${lms.bulkhead.enabled:true}") boolean enabled,
+                          @Value("${lms.bulkhead.slow-paths:/books/search,/borrowings/history}") List<String> slowPaths,
+                          @Value("${lms.bulkhead.max-requests:200}") int maxRequests,
+                          @Value("${lms.bulkhead.max-slow-requests:6}") int maxSlowRequests,
+                          @Value("${lms.bulkhead.queue-timeout:2s}") Duration queueTimeout,
+                          @Value("${management.endpoints.web.base-path:/actuator}") String actuatorPath) {
+        if (maxRequests < 1 || maxSlowRequests < 1) {
+            throw new IllegalArgumentException("Bulkhead limits must be positive");
+        }
+        this.enabled = enabled;
+        this.actuatorPath = actuatorPath;
+        this.slowPaths = List.copyOf(slowPaths);
+        this.maxRequests = maxRequests;
+        this.maxSlowRequests = maxSlowRequests;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        // Fair, so a request that has waited longest gets the next slot.
+        this.requests = new Semaphore(maxRequests, true);
+        this.slowRequests = new Semaphore(maxSlowRequests, true);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("lms.bulkhead.in-flight", requests, semaphore -> maxRequests - semaphore.availablePermits())
+                .tag("bulkhead", "all").register(registry);
+        Gauge.builder("lms.bulkhead.in-flight", slowRequests, semaphore -> maxSlowRequests - semaphore.availablePermits())
+                .tag("bulkhead", "slow").register(registry);
+        FunctionCounter.builder("lms.bulkhead.rejected", rejected, LongAdder::sum).tag("bulkhead", "all").register(registry);
+        FunctionCounter.builder("lms.bulkhead.rejected", rejectedSlow, LongAdder::sum).tag("bulkhead", "slow").register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals(actuatorPath) || path.startsWith(actuatorPath + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean slow = isSlow(request.getRequestURI().substring(request.getContextPath().length()));
+        if (slow && !acquire(slowRequests)) {
+            rejectedSlow.increment();
+            reject(response);
+            return;
+        }
+        try {
+            if (!acquire(requests)) {
+                rejected.increment();
+                reject(response);
+                return;
+            }
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                requests.release();
+            }
+        } finally {
+            if (slow) {
+                slowRequests.release();
+            }
+        }
+    }
+
+    private boolean isSlow(String path) {
+        for (String prefix : slowPaths) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean acquire(Semaphore semaphore) {
+        try {
+            return semaphore.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Too many requests in progress, retry shortly.");
+    }
+}
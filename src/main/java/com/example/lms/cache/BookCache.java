@@ -0,0 +1,164 @@
+package com.example.lms.cache;
+
+import com.example.lms.dto.diagnostics.CacheStatsDTO;
+import com.example.lms.event.AuthorDeletedEvent;
+import com.example.lms.event.AuthorsClearedEvent;
+import com.example.lms.event.BookAvailabilityChangedEvent;
+import com.example.lms.event.BookDeletedEvent;
+import com.example.lms.event.BookSavedEvent;
+import com.example.lms.event.BooksClearedEvent;
+import com.example.lms.repository.BookRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Read-through cache of book snapshots. Snapshots are keyed by id; the ISBN side only maps to an id,
+ * so a change to a book's contents is invalidated in a single place.
+ * Entries are evicted after commit by the listeners below, and bounded by size and age otherwise.
+ *
+ * <p>A miss is loaded by the calling thread, in its transaction, with no cache lock held; concurrent misses on
+ * the same id wait for that one load. Loading inside the map's compute would hold a monitor across the query,
+ * which pins a virtual thread to its carrier for the whole JDBC round trip.
+ */
+@Component
+public class BookCache implements MeterBinder {
+
+    private final BookRepository bookRepository;
+    private final long maximumSize;
+    private final AsyncCache<UUID, BookSnapshot> byId;
+    private final Cache<String, UUID> idsByIsbn;
+
+    public BookCache(BookRepository bookRepository,
+                     @Value("${lms.cache.book.maximum-size:100000}") long maximumSize,
+                     @Value("${lms.cache.book.ttl:10m}") Duration ttl) {
+        this.bookRepository = bookRepository;
+        this.maximumSize = maximumSize;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.idsByIsbn = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // cache.gets{cache=books|book-isbns,result=hit|miss}, cache.size and cache.evictions
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "books");
+        CaffeineCacheMetrics.monitor(registry, idsByIsbn, "book-isbns");
+    }
+
+    public Optional<BookSnapshot> findById(UUID id) {
+        CompletableFuture<BookSnapshot> load = new CompletableFuture<>();
+        CompletableFuture<BookSnapshot> snapshot = byId.get(id, (key, executor) -> load);
+        if (snapshot == load) {
+            // A null snapshot (no such book) completes the future and drops the entry, as before.
+            try {
+                load.complete(bookRepository.findSnapshotById(id).orElse(null));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return Optional.ofNullable(snapshot.join());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public Optional<BookSnapshot> findByIsbn(String isbn) {
+        UUID id = idsByIsbn.getIfPresent(isbn);
+        if (id == null) {
+            // Absent ISBNs are not cached, so a book created later is seen immediately.
+            id = bookRepository.findIdByIsbn(isbn).orElse(null);
+            if (id == null) {
+                return Optional.empty();
+            }
+            idsByIsbn.put(isbn, id);
+        }
+        // Only the mapping is filled here; the snapshot goes through findById, whose single-flight load is
+        // dropped by an invalidation that races it instead of being cached for the full TTL.
+        Optional<BookSnapshot> snapshot = findById(id);
+        if (snapshot.isPresent() && snapshot.get().isbn().equals(isbn)) {
+            return snapshot;
+        }
+        // The mapping outlived a delete or an ISBN change.
+        idsByIsbn.invalidate(isbn);
+        return bookRepository.findSnapshotByIsbn(isbn);
+    }
+
+    public void evict(UUID id) {
+        byId.synchronous().invalidate(id);
+    }
+
+    public CacheStatsDTO stats() {
+        Cache<UUID, BookSnapshot> cache = byId.synchronous();
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(
+                cache.estimatedSize(),
+                maximumSize,
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                stats.loadCount(),
+                stats.averageLoadPenalty() / 1_000_000.0
+        );
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        byId.synchronous().invalidate(event.current().getId());
+        idsByIsbn.invalidate(event.current().getIsbn());
+        if (event.previous() != null) {
+            idsByIsbn.invalidate(event.previous().getIsbn());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookDeleted(BookDeletedEvent event) {
+        byId.synchronous().invalidate(event.book().getId());
+        idsByIsbn.invalidate(event.book().getIsbn());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksCleared(BooksClearedEvent event) {
+        byId.synchronous().invalidateAll();
+        idsByIsbn.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(BookAvailabilityChangedEvent event) {
+        byId.synchronous().invalidate(event.bookId());
+    }
+
+    // Snapshots carry the author id, which the database has just nulled out.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorDeleted(AuthorDeletedEvent event) {
+        byId.synchronous().asMap().values().removeIf(book -> event.authorId().equals(book.authorId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorsCleared(AuthorsClearedEvent event) {
+        byId.synchronous().invalidateAll();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.lms.cache;
+
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.model.enums.Category;
+
+import java.util.UUID;
+
+// Immutable copy of a book row, safe to share between requests.
+public record BookSnapshot(UUID id, String title, String isbn, Category category, UUID authorId, boolean available) {
+
+    public BookResponseDTO toResponse() {
+        return new BookResponseDTO(id, title, isbn, category, authorId, available);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.lms.dto.author.AuthorRequestDTO;
 import com.example.lms.dto.author.AuthorResponseDTO;
 import com.example.lms.dto.author.AuthorUpdateDTO;
 import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.dto.response.CursorPageResponse;
 import com.example.lms.service.AuthorService;
 
 import org.springframework.http.ResponseEntity;
@@ -16,6 +17,8 @@ import java.util.UUID;
 @RequestMapping("/authors")
 public class AuthorController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final AuthorService authorService;
 
     public AuthorController(AuthorService authorService) {
@@ -23,9 +26,11 @@ public class AuthorController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<AuthorResponseDTO>> getAllAuthors(){
-        List<AuthorResponseDTO> dtos = authorService.getAllAuthors();
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<CursorPageResponse<AuthorResponseDTO>> getAllAuthors(
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size){
+        CursorPageResponse<AuthorResponseDTO> page = authorService.getAllAuthors(after, size);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/{id}")
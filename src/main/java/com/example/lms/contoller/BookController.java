@@ -1,30 +1,80 @@
 package com.example.lms.contoller;
 
+import com.example.lms.availability.AvailabilityBroadcaster;
+import com.example.lms.dto.book.BookImportResultDTO;
 import com.example.lms.dto.book.BookRequestDTO;
 import com.example.lms.dto.book.BookResponseDTO;
 import com.example.lms.dto.book.BookUpdateDTO;
+import com.example.lms.dto.response.CursorPageResponse;
 import com.example.lms.model.enums.Category;
+import com.example.lms.service.BookImportService;
 import com.example.lms.service.BookService;
+import com.example.lms.service.ExportService;
+import org.springframework.data.domain.Sort;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/books")
 public class BookController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final ExportService exportService;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookImportService bookImportService, ExportService exportService,
+                          AvailabilityBroadcaster availabilityBroadcaster) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.exportService = exportService;
+        this.availabilityBroadcaster = availabilityBroadcaster;
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<BookResponseDTO>> getAllBooks(){
-        List<BookResponseDTO> dtos = bookService.getAllBooks();
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<CursorPageResponse<BookResponseDTO>> getAllBooks(
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size){
+        CursorPageResponse<BookResponseDTO> page = bookService.getAllBooks(after, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/all/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllBooks(){
+        // One JSON document per line, written as rows come off the cursor.
+        StreamingResponseBody body = outputStream -> exportService.exportBooks(outputStream, ExportService.Format.NDJSON, false);
+        return ResponseEntity.ok(body);
+    }
+
+    // Server-Sent Events: one "availability" event per window with the latest state of each changed book.
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(@RequestParam(required = false) Set<UUID> bookIds){
+        return availabilityBroadcaster.subscribe(bookIds);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(defaultValue = "NDJSON") ExportService.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip){
+        StreamingResponseBody body = outputStream -> exportService.exportBooks(outputStream, format, gzip);
+        return ResponseEntity.ok()
+                .contentType(exportService.mediaType(format, gzip))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportService.fileName("books", format, gzip)).build().toString())
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -37,27 +87,11 @@ public class BookController {
     public ResponseEntity<List<BookResponseDTO>> searchBooks(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) Category category,
-            @RequestParam(required = false) String author) {
-
-        List<BookResponseDTO> results;
-
-        if (title != null && category != null && author != null) {
-            results = bookService.findByTitleAndCategoryAndAuthor(title, category, author);
-        } else if (title != null && category != null) {
-            results = bookService.findByTitleAndCategory(title, category);
-        } else if (title != null && author != null) {
-            results = bookService.findByTitleAndAuthor(title, author);
-        } else if (category != null && author != null) {
-            results = bookService.findByCategoryAndAuthor(category, author);
-        } else if (title != null) {
-            results = bookService.findByTitle(title);
-        } else if (category != null) {
-            results = bookService.findByCategory(category);
-        } else if (author != null) {
-            results = bookService.findByAuthor(author);
-        } else {
-            results = bookService.getAllBooks();
-        }
+            @RequestParam(required = false) String author,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            Sort sort) {
+
+        List<BookResponseDTO> results = bookService.searchBooks(title, category, author, sort, limit);
 
         return ResponseEntity.ok(results);
     }
@@ -69,6 +103,16 @@ public class BookController {
         return ResponseEntity.ok(dto);
     }
 
+    // Body is read as a stream: CSV (title,isbn,category,authorId) or one BookRequestDTO per line.
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<BookImportResultDTO> importBooks(@RequestHeader("Content-Type") MediaType contentType, HttpServletRequest request) throws IOException {
+        BookImportService.Format format = contentType.isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? BookImportService.Format.CSV
+                : BookImportService.Format.NDJSON;
+        BookImportResultDTO result = bookImportService.importBooks(request.getInputStream(), format);
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<BookResponseDTO> updateBook(@PathVariable UUID id, @RequestBody BookUpdateDTO bookUpdateDTO){
         BookResponseDTO dto = bookService.update(id, bookUpdateDTO);
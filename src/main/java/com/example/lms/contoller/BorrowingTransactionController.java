@@ -1,12 +1,21 @@
 package com.example.lms.contoller;
 
+import com.example.lms.archive.BorrowingArchiver;
+import com.example.lms.dto.borrowings.ArchiveRunDTO;
+import com.example.lms.dto.borrowings.BatchCheckoutRequestDTO;
+import com.example.lms.dto.borrowings.BatchResultDTO;
+import com.example.lms.dto.borrowings.BatchReturnRequestDTO;
 import com.example.lms.dto.borrowings.BorrowingTransactionRequestDTO;
 import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
 import com.example.lms.dto.borrowings.BorrowingTransactionUpdateDTO;
 import com.example.lms.service.BorrowingTransactionService;
+import com.example.lms.service.ExportService;
 
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -15,10 +24,16 @@ import java.util.UUID;
 @RequestMapping("/borrowings")
 public class BorrowingTransactionController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final BorrowingTransactionService borrowingTransactionService;
+    private final ExportService exportService;
+    private final BorrowingArchiver borrowingArchiver;
 
-    public BorrowingTransactionController(BorrowingTransactionService borrowingTransactionService) {
+    public BorrowingTransactionController(BorrowingTransactionService borrowingTransactionService, ExportService exportService, BorrowingArchiver borrowingArchiver) {
         this.borrowingTransactionService = borrowingTransactionService;
+        this.exportService = exportService;
+        this.borrowingArchiver = borrowingArchiver;
     }
 
     @PostMapping("/new")
@@ -27,12 +42,71 @@ public class BorrowingTransactionController {
         return ResponseEntity.status(201).body(dto);
     }
 
+    @PostMapping("/batch/checkout")
+    public ResponseEntity<BatchResultDTO> checkoutBatch(@RequestBody BatchCheckoutRequestDTO batchCheckoutRequestDTO){
+        BatchResultDTO result = borrowingTransactionService.checkoutBatch(batchCheckoutRequestDTO);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/batch/return")
+    public ResponseEntity<BatchResultDTO> returnBatch(@RequestBody BatchReturnRequestDTO batchReturnRequestDTO){
+        BatchResultDTO result = borrowingTransactionService.returnBatch(batchReturnRequestDTO);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/all")
     public ResponseEntity<List<BorrowingTransactionResponseDTO>> getAllBorrowings(){
         List<BorrowingTransactionResponseDTO> dtos = borrowingTransactionService.getAllBorrowings();
         return ResponseEntity.ok(dtos);
     }
 
+    @GetMapping("/overdue")
+    public ResponseEntity<List<BorrowingTransactionResponseDTO>> getOverdueBorrowings(
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit){
+        List<BorrowingTransactionResponseDTO> dtos = borrowingTransactionService.getOverdueBorrowings(limit);
+        return ResponseEntity.ok(dtos);
+    }
+
+    @GetMapping("/overdue/count")
+    public ResponseEntity<Long> countOverdueBorrowings(){
+        long count = borrowingTransactionService.countOverdueBorrowings();
+        return ResponseEntity.ok(count);
+    }
+
+    @GetMapping("/history/book/{bookId}")
+    public ResponseEntity<List<BorrowingTransactionResponseDTO>> getBookHistory(
+            @PathVariable UUID bookId,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit){
+        List<BorrowingTransactionResponseDTO> dtos = borrowingTransactionService.getBookHistory(bookId, limit);
+        return ResponseEntity.ok(dtos);
+    }
+
+    @GetMapping("/history/borrower/{borrowerId}")
+    public ResponseEntity<List<BorrowingTransactionResponseDTO>> getBorrowerHistory(
+            @PathVariable UUID borrowerId,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit){
+        List<BorrowingTransactionResponseDTO> dtos = borrowingTransactionService.getBorrowerHistory(borrowerId, limit);
+        return ResponseEntity.ok(dtos);
+    }
+
+    @PostMapping("/archive")
+    public ResponseEntity<ArchiveRunDTO> archiveReturnedBorrowings(){
+        ArchiveRunDTO dto = borrowingArchiver.run();
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBorrowings(
+            @RequestParam(defaultValue = "NDJSON") ExportService.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip){
+        StreamingResponseBody body = outputStream -> exportService.exportBorrowings(outputStream, format, gzip);
+        return ResponseEntity.ok()
+                .contentType(exportService.mediaType(format, gzip))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportService.fileName("borrowings", format, gzip)).build().toString())
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BorrowingTransactionResponseDTO> getBorrowingById(@PathVariable UUID id){
         BorrowingTransactionResponseDTO dto = borrowingTransactionService.getBorrowingById(id);
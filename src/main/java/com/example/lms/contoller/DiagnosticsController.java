@@ -0,0 +1,64 @@
+package com.example.lms.contoller;
+
+import com.example.lms.bloom.UniqueKeyFilters;
+import com.example.lms.cache.BookCache;
+import com.example.lms.dto.diagnostics.BloomFilterStatsDTO;
+import com.example.lms.dto.diagnostics.CacheStatsDTO;
+import com.example.lms.dto.diagnostics.IdempotencyStatsDTO;
+import com.example.lms.dto.diagnostics.SqlEndpointStatsDTO;
+import com.example.lms.idempotency.IdempotencyFilter;
+import com.example.lms.sqlstats.SqlStatsCollector;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/diagnostics")
+public class DiagnosticsController {
+
+    private final BookCache bookCache;
+    private final UniqueKeyFilters uniqueKeyFilters;
+    private final IdempotencyFilter idempotencyFilter;
+    private final SqlStatsCollector sqlStatsCollector;
+
+    public DiagnosticsController(BookCache bookCache, UniqueKeyFilters uniqueKeyFilters, IdempotencyFilter idempotencyFilter,
+                                 SqlStatsCollector sqlStatsCollector) {
+        this.bookCache = bookCache;
+        this.uniqueKeyFilters = uniqueKeyFilters;
+        this.idempotencyFilter = idempotencyFilter;
+        this.sqlStatsCollector = sqlStatsCollector;
+    }
+
+    @GetMapping("/book-cache")
+    public ResponseEntity<CacheStatsDTO> getBookCacheStats(){
+        CacheStatsDTO dto = bookCache.stats();
+        return ResponseEntity.ok(dto);
+    }
+
+    @GetMapping("/unique-key-filters")
+    public ResponseEntity<List<BloomFilterStatsDTO>> getUniqueKeyFilterStats(){
+        List<BloomFilterStatsDTO> dtos = uniqueKeyFilters.stats();
+        return ResponseEntity.ok(dtos);
+    }
+
+    @GetMapping("/idempotency")
+    public ResponseEntity<IdempotencyStatsDTO> getIdempotencyStats(){
+        IdempotencyStatsDTO dto = idempotencyFilter.stats();
+        return ResponseEntity.ok(dto);
+    }
+
+    // Statements, rows and JDBC time per controller method, most statements first.
+    @GetMapping("/sql")
+    public ResponseEntity<List<SqlEndpointStatsDTO>> getSqlStats(){
+        List<SqlEndpointStatsDTO> dtos = sqlStatsCollector.endpointStats();
+        return ResponseEntity.ok(dtos);
+    }
+
+    @DeleteMapping("/sql")
+    public ResponseEntity<String> resetSqlStats(){
+        sqlStatsCollector.reset();
+        return ResponseEntity.ok("SQL statistics were reset.");
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.lms.contoller;
+
+import com.example.lms.dto.eventlog.EventLogPageDTO;
+import com.example.lms.dto.eventlog.LoggedEventDTO;
+import com.example.lms.eventlog.BookRecord;
+import com.example.lms.eventlog.CirculationEventLog;
+import com.example.lms.eventlog.LoggedEvent;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/event-log")
+public class EventLogController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final CirculationEventLog circulationEventLog;
+
+    public EventLogController(CirculationEventLog circulationEventLog) {
+        this.circulationEventLog = circulationEventLog;
+    }
+
+    @GetMapping
+    public ResponseEntity<EventLogPageDTO> read(@RequestParam(defaultValue = "0") long from,
+                                                @RequestParam(defaultValue = "100") int limit){
+        List<LoggedEvent> events;
+        try {
+            events = circulationEventLog.read(from, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        } catch (IllegalArgumentException e) {
+            // Offsets come from the client, so a bad one is its mistake: negative, past the end or mid-record.
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        long next = events.isEmpty() ? from : events.get(events.size() - 1).next();
+        List<LoggedEventDTO> dtos = events.stream()
+                .map(EventLogController::toDto)
+                .toList();
+        return ResponseEntity.ok(new EventLogPageDTO(circulationEventLog.isEnabled(), dtos, next,
+                circulationEventLog.nextOffset(), circulationEventLog.durableOffset(), circulationEventLog.droppedEvents()));
+    }
+
+    // Book events carry a binary BookRecord, shown as its fields; the others carry plain text.
+    private static LoggedEventDTO toDto(LoggedEvent event) {
+        boolean book = event.type().carriesBookRecord();
+        return new LoggedEventDTO(event.offset(), event.type(), Instant.ofEpochMilli(event.timestamp()),
+                event.subjectId(), event.bookId(), event.borrowerId(), book ? null : event.detailText(),
+                book ? BookRecord.parse(event.detail()) : null);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.lms.contoller;
+
+import com.example.lms.dto.purge.PurgeJobDTO;
+import com.example.lms.service.PurgeJobService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/purges")
+public class PurgeController {
+
+    private final PurgeJobService purgeJobService;
+
+    public PurgeController(PurgeJobService purgeJobService) {
+        this.purgeJobService = purgeJobService;
+    }
+
+    @PostMapping("/{target}")
+    public ResponseEntity<PurgeJobDTO> startPurge(@PathVariable PurgeJobService.Target target){
+        PurgeJobDTO dto = purgeJobService.start(target);
+        return ResponseEntity.accepted().body(dto);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PurgeJobDTO>> getPurges(){
+        List<PurgeJobDTO> dtos = purgeJobService.getJobs();
+        return ResponseEntity.ok(dtos);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PurgeJobDTO> getPurge(@PathVariable UUID id){
+        PurgeJobDTO dto = purgeJobService.getJob(id);
+        return ResponseEntity.ok(dto);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.lms.contoller;
+
+import com.example.lms.dto.stats.CirculationStatsDTO;
+import com.example.lms.stats.CirculationStats;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/stats")
+public class StatsController {
+
+    private final CirculationStats circulationStats;
+
+    public StatsController(CirculationStats circulationStats) {
+        this.circulationStats = circulationStats;
+    }
+
+    @GetMapping
+    public ResponseEntity<CirculationStatsDTO> getStats(){
+        CirculationStatsDTO dto = circulationStats.snapshot();
+        return ResponseEntity.ok(dto);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.lms.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityChangeDTO {
+    private UUID bookId;
+    private boolean available;
+}
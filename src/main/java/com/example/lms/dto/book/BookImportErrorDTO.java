@@ -0,0 +1,14 @@
+package com.example.lms.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportErrorDTO {
+    private long line;
+    private String isbn;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.example.lms.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportResultDTO {
+    private long received;
+    private long imported;
+    private long rejected;
+    private List<BookImportErrorDTO> errors = new ArrayList<>();
+    private boolean errorsTruncated; // Only the first errors are listed; "rejected" is always the full count.
+}
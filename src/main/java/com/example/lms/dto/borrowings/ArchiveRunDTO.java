@@ -0,0 +1,18 @@
+package com.example.lms.dto.borrowings;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveRunDTO {
+    private LocalDate cutoff; // Returned loans due before this date were moved.
+    private long archived;
+    private int chunks;
+    private long durationMillis;
+    private boolean alreadyRunning;
+}
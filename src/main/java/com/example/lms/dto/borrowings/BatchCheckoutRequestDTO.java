@@ -0,0 +1,15 @@
+package com.example.lms.dto.borrowings;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCheckoutRequestDTO {
+    private String borrowerEmail;
+    private List<String> isbns;
+}
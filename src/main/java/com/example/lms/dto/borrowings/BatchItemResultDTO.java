@@ -0,0 +1,15 @@
+package com.example.lms.dto.borrowings;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResultDTO {
+    private String item; // ISBN for checkouts, transaction ID for returns.
+    private boolean success;
+    private String message;
+    private BorrowingTransactionResponseDTO transaction;
+}
@@ -0,0 +1,17 @@
+package com.example.lms.dto.borrowings;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDTO {
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResultDTO> items = new ArrayList<>(); // In request order.
+}
@@ -0,0 +1,15 @@
+package com.example.lms.dto.borrowings;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReturnRequestDTO {
+    private List<UUID> transactionIds;
+}
@@ -0,0 +1,21 @@
+package com.example.lms.dto.diagnostics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BloomFilterStatsDTO {
+    private String key;
+    private boolean ready;
+    private long bitSize;
+    private int hashFunctions;
+    private long insertions;
+    private double configuredFalsePositiveRate;
+    private double estimatedFalsePositiveRate;
+    private long definiteNegatives; // Answered without touching the database
+    private long maybes;
+    private long falsePositives;    // "Maybe" answers the repository then ruled out
+}
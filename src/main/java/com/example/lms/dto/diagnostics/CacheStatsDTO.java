@@ -0,0 +1,19 @@
+package com.example.lms.dto.diagnostics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private long size;
+    private long maximumSize;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long loadCount;
+    private double averageLoadMillis;
+}
@@ -0,0 +1,18 @@
+package com.example.lms.dto.diagnostics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyStatsDTO {
+    private long keys;
+    private long weightBytes; // Estimated bytes held by the keys and their stored responses.
+    private long maximumWeightBytes;
+    private long executed; // First requests for a key, passed through to the controller.
+    private long replayed; // Retries answered from a stored response.
+    private long joined; // Duplicates that waited on the in-flight first request.
+    private long rejected; // Invalid keys, body mismatches and wait timeouts.
+}
@@ -0,0 +1,19 @@
+package com.example.lms.dto.diagnostics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlEndpointStatsDTO {
+    private String endpoint; // Controller.method
+    private long requests;
+    private long statements;
+    private long rows;
+    private double jdbcMillis;
+    private double averageStatements;
+    private long maxStatements; // Most statements seen in a single request.
+    private long repeatedStatementWarnings; // Requests that ran one statement shape more than the threshold.
+}
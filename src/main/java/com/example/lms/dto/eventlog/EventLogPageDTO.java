@@ -0,0 +1,19 @@
+package com.example.lms.dto.eventlog;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventLogPageDTO {
+    private boolean enabled;
+    private List<LoggedEventDTO> events;
+    private long nextOffset; // Pass as "from" to continue reading.
+    private long endOffset;
+    private long durableOffset; // Events before this offset survive a crash.
+    private long droppedEvents; // Committed changes that could not be appended; non-zero means the log has gaps.
+}
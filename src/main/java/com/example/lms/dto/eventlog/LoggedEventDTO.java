@@ -0,0 +1,24 @@
+package com.example.lms.dto.eventlog;
+
+import com.example.lms.eventlog.BookRecord;
+import com.example.lms.eventlog.CirculationEventType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoggedEventDTO {
+    private long offset;
+    private CirculationEventType type;
+    private Instant recordedAt;
+    private UUID subjectId;
+    private UUID bookId;
+    private UUID borrowerId;
+    private String detail;
+    private BookRecord book;
+}
@@ -0,0 +1,24 @@
+package com.example.lms.dto.purge;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurgeJobDTO {
+    private UUID id;
+    private String target;
+    private String status; // QUEUED, RUNNING, COMPLETED or FAILED.
+    private long total; // Row count when the job started; rows inserted meanwhile are purged too.
+    private long deleted;
+    private int chunks;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.example.lms.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> items;
+    private UUID next; // Pass back as "after" to fetch the following page; null on the last page.
+}
@@ -0,0 +1,18 @@
+package com.example.lms.dto.stats;
+
+import com.example.lms.model.enums.Category;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryStatsDTO {
+    private Category category;
+    private long totalBooks;
+    private long availableBooks;
+    private long borrowedBooks;
+    private double availabilityRatio;
+    private long loansInWindow;
+}
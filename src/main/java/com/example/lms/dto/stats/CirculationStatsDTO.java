@@ -0,0 +1,23 @@
+package com.example.lms.dto.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CirculationStatsDTO {
+    private long totalBooks;
+    private long availableBooks;
+    private long borrowedBooks;
+    private double availabilityRatio;
+    private int windowDays;
+    private List<CategoryStatsDTO> categories;
+    private List<DailyLoansDTO> loansPerDay; // Oldest first, one entry per day in the window.
+    private Instant reconciledAt;
+    private long lastReconcileDrift; // Sum of absolute corrections applied by the last reconciliation.
+}
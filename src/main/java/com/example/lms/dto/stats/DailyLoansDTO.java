@@ -0,0 +1,18 @@
+package com.example.lms.dto.stats;
+
+import com.example.lms.model.enums.Category;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyLoansDTO {
+    private LocalDate date;
+    private long loans;
+    private Map<Category, Long> byCategory;
+}
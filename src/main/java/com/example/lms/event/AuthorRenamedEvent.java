@@ -0,0 +1,6 @@
+package com.example.lms.event;
+
+import java.util.UUID;
+
+public record AuthorRenamedEvent(UUID authorId, String name) {
+}
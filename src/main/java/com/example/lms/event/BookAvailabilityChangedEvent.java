@@ -0,0 +1,9 @@
+package com.example.lms.event;
+
+import com.example.lms.model.enums.Category;
+
+import java.util.UUID;
+
+// Published when a checkout or return flips a book's availability.
+public record BookAvailabilityChangedEvent(UUID bookId, Category category, boolean available) {
+}
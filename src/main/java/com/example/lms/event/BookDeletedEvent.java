@@ -0,0 +1,6 @@
+package com.example.lms.event;
+
+import com.example.lms.dto.book.BookResponseDTO;
+
+public record BookDeletedEvent(BookResponseDTO book) {
+}
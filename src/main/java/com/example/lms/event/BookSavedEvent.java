@@ -0,0 +1,7 @@
+package com.example.lms.event;
+
+import com.example.lms.dto.book.BookResponseDTO;
+
+// Published after a book is created (previous == null) or updated.
+public record BookSavedEvent(BookResponseDTO previous, BookResponseDTO current, String authorName) {
+}
@@ -0,0 +1,7 @@
+package com.example.lms.event;
+
+import com.example.lms.dto.borrower.BorrowerResponseDTO;
+
+// Published after a borrower is created (previous == null) or updated.
+public record BorrowerSavedEvent(BorrowerResponseDTO previous, BorrowerResponseDTO current) {
+}
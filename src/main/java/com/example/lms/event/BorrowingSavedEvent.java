@@ -0,0 +1,7 @@
+package com.example.lms.event;
+
+import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
+
+// Published after a loan is created (previous == null) or updated, including returns.
+public record BorrowingSavedEvent(BorrowingTransactionResponseDTO previous, BorrowingTransactionResponseDTO current) {
+}
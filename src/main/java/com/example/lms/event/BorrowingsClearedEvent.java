@@ -0,0 +1,4 @@
+package com.example.lms.event;
+
+public record BorrowingsClearedEvent() {
+}
@@ -0,0 +1,109 @@
+package com.example.lms.eventlog;
+
+import com.example.lms.model.enums.Category;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Detail of book and availability events: the fields the search index and the per-category counters are
+ * built from, so both can be rebuilt from the log alone. Availability events carry only the category and
+ * the new availability.
+ *
+ * <p>Layout: {@code present:byte, available:byte, [isbn], [title], [category:byte], [authorId:uuid], [authorName]},
+ * where strings are {@code length:short, utf8} and each bracketed value is written only if its bit in
+ * {@code present} is set. {@link Category} ordinals are part of the format.
+ */
+public record BookRecord(String isbn, String title, Category category, UUID authorId, String authorName, Boolean available) {
+
+    private static final int ISBN = 1;
+    private static final int TITLE = 1 << 1;
+    private static final int CATEGORY = 1 << 2;
+    private static final int AUTHOR_ID = 1 << 3;
+    private static final int AUTHOR_NAME = 1 << 4;
+    private static final int AVAILABLE = 1 << 5;
+    private static final Category[] CATEGORIES = Category.values();
+
+    public static BookRecord availability(Category category, boolean available) {
+        return new BookRecord(null, null, category, null, null, available);
+    }
+
+    public static BookRecord parse(byte[] detail) {
+        if (detail == null || detail.length < 2) {
+            throw new IllegalArgumentException("Malformed book event detail");
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(detail);
+            int present = buffer.get();
+            boolean available = buffer.get() != 0;
+            String isbn = (present & ISBN) != 0 ? getString(buffer) : null;
+            String title = (present & TITLE) != 0 ? getString(buffer) : null;
+            Category category = (present & CATEGORY) != 0 ? CATEGORIES[buffer.get()] : null;
+            UUID authorId = (present & AUTHOR_ID) != 0 ? new UUID(buffer.getLong(), buffer.getLong()) : null;
+            String authorName = (present & AUTHOR_NAME) != 0 ? getString(buffer) : null;
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Malformed book event detail: " + buffer.remaining() + " trailing bytes");
+            }
+            return new BookRecord(isbn, title, category, authorId, authorName, (present & AVAILABLE) != 0 ? available : null);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed book event detail", e);
+        }
+    }
+
+    public byte[] encode() {
+        byte[] isbnBytes = bytes(isbn);
+        byte[] titleBytes = bytes(title);
+        byte[] authorNameBytes = bytes(authorName);
+        int length = 2 + sizeOf(isbnBytes) + sizeOf(titleBytes) + (category != null ? 1 : 0)
+                + (authorId != null ? 16 : 0) + sizeOf(authorNameBytes);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.put((byte) ((isbn != null ? ISBN : 0) | (title != null ? TITLE : 0) | (category != null ? CATEGORY : 0)
+                | (authorId != null ? AUTHOR_ID : 0) | (authorName != null ? AUTHOR_NAME : 0) | (available != null ? AVAILABLE : 0)));
+        buffer.put((byte) (Boolean.TRUE.equals(available) ? 1 : 0));
+        putString(buffer, isbnBytes);
+        putString(buffer, titleBytes);
+        if (category != null) {
+            buffer.put((byte) category.ordinal());
+        }
+        if (authorId != null) {
+            buffer.putLong(authorId.getMostSignificantBits());
+            buffer.putLong(authorId.getLeastSignificantBits());
+        }
+        putString(buffer, authorNameBytes);
+        return buffer.array();
+    }
+
+    private static byte[] bytes(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Book event field too long: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int sizeOf(byte[] bytes) {
+        return bytes == null ? 0 : Short.BYTES + bytes.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes != null) {
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            throw new IllegalArgumentException("Malformed book event detail: negative field length");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
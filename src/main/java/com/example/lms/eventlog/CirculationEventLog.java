@@ -0,0 +1,244 @@
+package com.example.lms.eventlog;
+
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
+import com.example.lms.event.AuthorDeletedEvent;
+import com.example.lms.event.AuthorRenamedEvent;
+import com.example.lms.event.AuthorsClearedEvent;
+import com.example.lms.event.BookAvailabilityChangedEvent;
+import com.example.lms.event.BookDeletedEvent;
+import com.example.lms.event.BookSavedEvent;
+import com.example.lms.event.BooksClearedEvent;
+import com.example.lms.event.BorrowerDeletedEvent;
+import com.example.lms.event.BorrowerSavedEvent;
+import com.example.lms.event.BorrowersClearedEvent;
+import com.example.lms.event.BorrowingDeletedEvent;
+import com.example.lms.event.BorrowingSavedEvent;
+import com.example.lms.event.BorrowingsClearedEvent;
+import com.example.lms.model.enums.TransactionStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Records committed circulation changes (book, borrower and loan saves, deletes and clears, availability
+ * flips and author renames) in a {@link SegmentedEventLog}. Book events carry a {@link BookRecord}, so the
+ * search index and the circulation counters can be rebuilt by replaying the log. Appends happen on the
+ * committing thread and only copy into the mapped segment; a background flusher forces the log to disk every
+ * fsync interval, so one fsync covers every change committed since the last one. A crash can lose at most
+ * that interval of events, never the database rows.
+ * <p>
+ * Appends run after the change has committed, so a failing append is logged and counted rather than thrown
+ * back at the caller. Once {@link #droppedEvents()} is non-zero the log has gaps and cannot stand in for a
+ * scan of the database.
+ */
+@Component
+public class CirculationEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(CirculationEventLog.class);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final DataSize segmentSize;
+    private final Duration fsyncInterval;
+
+    private SegmentedEventLog eventLog;
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-log-fsync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CirculationEventLog(@Value("${lms.event-log.enabled:true}") boolean enabled,
+                               @Value("${lms.event-log.directory:./data/event-log}") Path directory,
+                               @Value("${lms.event-log.segment-size:64MB}") DataSize segmentSize,
+                               @Value("${lms.event-log.fsync-interval:50ms}") Duration fsyncInterval) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncInterval = fsyncInterval;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            eventLog = new SegmentedEventLog(directory, Math.toIntExact(segmentSize.toBytes()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open event log in " + directory, e);
+        }
+        long interval = fsyncInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Event log opened in {} at offset {} ({} segments)", directory.toAbsolutePath(), eventLog.nextOffset(), eventLog.segmentCount());
+    }
+
+    @PreDestroy
+    public void close() {
+        flusher.shutdownNow();
+        if (eventLog != null) {
+            eventLog.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return eventLog != null;
+    }
+
+    public List<LoggedEvent> read(long fromOffset, int limit) {
+        return eventLog != null ? eventLog.read(fromOffset, limit) : List.of();
+    }
+
+    /**
+     * Feeds every event from {@code fromOffset} onwards to {@code consumer} and returns the offset to resume from.
+     */
+    public long replay(long fromOffset, Consumer<LoggedEvent> consumer) {
+        return eventLog != null ? eventLog.replay(fromOffset, 1000, consumer) : fromOffset;
+    }
+
+    public long nextOffset() {
+        return eventLog != null ? eventLog.nextOffset() : 0;
+    }
+
+    public long durableOffset() {
+        return eventLog != null ? eventLog.durableOffset() : 0;
+    }
+
+    public long droppedEvents() {
+        return droppedEvents.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        BookResponseDTO book = event.current();
+        BookRecord record = new BookRecord(book.getIsbn(), book.getTitle(), book.getCategory(), book.getAuthorId(),
+                event.authorName(), book.isAvailable());
+        append(event.previous() == null ? CirculationEventType.BOOK_CREATED : CirculationEventType.BOOK_UPDATED,
+                book.getId(), book.getId(), null, record.encode());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookDeleted(BookDeletedEvent event) {
+        BookResponseDTO book = event.book();
+        BookRecord record = new BookRecord(book.getIsbn(), book.getTitle(), book.getCategory(), book.getAuthorId(),
+                null, book.isAvailable());
+        append(CirculationEventType.BOOK_DELETED, book.getId(), book.getId(), null, record.encode());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(BookAvailabilityChangedEvent event) {
+        append(CirculationEventType.AVAILABILITY_CHANGED, event.bookId(), event.bookId(), null,
+                BookRecord.availability(event.category(), event.available()).encode());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksCleared(BooksClearedEvent event) {
+        append(CirculationEventType.BOOKS_CLEARED, null, null, null, null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorRenamed(AuthorRenamedEvent event) {
+        append(CirculationEventType.AUTHOR_RENAMED, event.authorId(), null, null, text(event.name()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorDeleted(AuthorDeletedEvent event) {
+        append(CirculationEventType.AUTHOR_DELETED, event.authorId(), null, null, null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorsCleared(AuthorsClearedEvent event) {
+        append(CirculationEventType.AUTHORS_CLEARED, null, null, null, null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowerSaved(BorrowerSavedEvent event) {
+        append(event.previous() == null ? CirculationEventType.BORROWER_CREATED : CirculationEventType.BORROWER_UPDATED,
+                event.current().getId(), null, event.current().getId(), text(event.current().getEmail()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowerDeleted(BorrowerDeletedEvent event) {
+        append(CirculationEventType.BORROWER_DELETED, event.borrowerId(), null, event.borrowerId(), null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowersCleared(BorrowersClearedEvent event) {
+        append(CirculationEventType.BORROWERS_CLEARED, null, null, null, null);
+    }
+
+    // Checkouts carry the due date, returns the return date, other loan updates the new status.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowingSaved(BorrowingSavedEvent event) {
+        BorrowingTransactionResponseDTO loan = event.current();
+        CirculationEventType type;
+        String detail;
+        if (event.previous() == null) {
+            type = CirculationEventType.CHECKOUT;
+            detail = String.valueOf(loan.getReturnDate());
+        } else if (event.previous().getStatus() != TransactionStatus.RETURNED && loan.getStatus() == TransactionStatus.RETURNED) {
+            type = CirculationEventType.RETURN;
+            detail = String.valueOf(loan.getReturnDate());
+        } else {
+            type = CirculationEventType.LOAN_UPDATED;
+            detail = String.valueOf(loan.getStatus());
+        }
+        append(type, loan.getId(), loan.getBookId(), loan.getBorrowerId(), text(detail));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowingDeleted(BorrowingDeletedEvent event) {
+        append(CirculationEventType.LOAN_DELETED, event.transactionId(), null, null, null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowingsCleared(BorrowingsClearedEvent event) {
+        append(CirculationEventType.LOANS_CLEARED, null, null, null, null);
+    }
+
+    private static byte[] text(String detail) {
+        return detail == null ? null : detail.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void append(CirculationEventType type, UUID subjectId, UUID bookId, UUID borrowerId, byte[] detail) {
+        if (eventLog == null) {
+            return;
+        }
+        try {
+            eventLog.append(type, System.currentTimeMillis(), subjectId, bookId, borrowerId, detail);
+        } catch (RuntimeException e) {
+            // The change is already committed; failing the request would not undo it.
+            long dropped = droppedEvents.incrementAndGet();
+            log.error("Could not append {} for {} to the event log ({} events dropped so far)", type, subjectId, dropped, e);
+        }
+    }
+
+    private void flush() {
+        try {
+            eventLog.flush();
+        } catch (RuntimeException e) {
+            // Keep the flusher scheduled; the next run retries with everything still pending.
+            log.error("Event log fsync failed", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.lms.eventlog;
+
+// Stored by ordinal in the event log: only ever append new constants.
+public enum CirculationEventType {
+    BOOK_CREATED,
+    BOOK_UPDATED,
+    BOOK_DELETED,
+    BOOKS_CLEARED,
+    BORROWER_CREATED,
+    BORROWER_UPDATED,
+    BORROWER_DELETED,
+    BORROWERS_CLEARED,
+    CHECKOUT,
+    RETURN,
+    LOAN_UPDATED,
+    LOAN_DELETED,
+    LOANS_CLEARED,
+    AVAILABILITY_CHANGED,
+    AUTHOR_RENAMED,
+    AUTHOR_DELETED,
+    AUTHORS_CLEARED;
+
+    // Whether the event's detail is a BookRecord rather than text.
+    public boolean carriesBookRecord() {
+        return switch (this) {
+            case BOOK_CREATED, BOOK_UPDATED, BOOK_DELETED, AVAILABILITY_CHANGED -> true;
+            default -> false;
+        };
+    }
+}
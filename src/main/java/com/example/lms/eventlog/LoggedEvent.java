@@ -0,0 +1,14 @@
+package com.example.lms.eventlog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+// One record read back from the event log; next is the offset of the record after it.
+public record LoggedEvent(long offset, long next, CirculationEventType type, long timestamp,
+                          UUID subjectId, UUID bookId, UUID borrowerId, byte[] detail) {
+
+    // The detail of events that carry text rather than a BookRecord.
+    public String detailText() {
+        return detail == null ? null : new String(detail, StandardCharsets.UTF_8);
+    }
+}
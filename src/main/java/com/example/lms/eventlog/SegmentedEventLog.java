@@ -0,0 +1,323 @@
+package com.example.lms.eventlog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of {@link LoggedEvent}s in fixed-size, memory-mapped segment files. An append is a copy
+ * into the mapped region of the active segment; nothing reaches the disk until {@link #flush()}, which forces
+ * every append made so far in one call, so callers can group many appends per fsync.
+ *
+ * <p>Offsets are logical byte positions: each segment file is named after the offset of its first record,
+ * and a record's offset is its segment's base plus its position in the file. Records are framed as
+ * {@code [int length][body][int crc32c]}; a zero length marks the end of a segment's data. On open, the
+ * active segment is scanned and anything after the first torn or corrupt record is discarded.
+ *
+ * <p>Body layout: {@code type:byte, timestamp:long, subject:uuid, book:uuid, borrower:uuid, detailLength:short,
+ * detail:bytes}. Absent ids are written as zeros, and {@link CirculationEventType} ordinals are part of the format.
+ * The detail is opaque here: text for most events, a {@link BookRecord} for book events.
+ */
+public class SegmentedEventLog implements Closeable {
+
+    private static final int FRAME_OVERHEAD = Integer.BYTES * 2;
+    private static final int FIXED_BODY = 1 + Long.BYTES + 3 * 16 + Short.BYTES;
+    private static final int MAX_DETAIL_BYTES = Short.MAX_VALUE;
+    private static final String SUFFIX = ".seg";
+    private static final CirculationEventType[] TYPES = CirculationEventType.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    // Base offset -> mapping of the whole segment file, the active one last
+    private final ConcurrentSkipListMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+
+    // Guarded by appendLock
+    private long activeBase;
+    private MappedByteBuffer active;
+    private final CRC32C crc = new CRC32C();
+
+    // Written after the record bytes, so a reader that sees an offset also sees the record before it.
+    private volatile long nextOffset;
+    private final AtomicLong durableOffset = new AtomicLong();
+
+    public SegmentedEventLog(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < FRAME_OVERHEAD + FIXED_BODY + MAX_DETAIL_BYTES + Integer.BYTES) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        if (files.isEmpty()) {
+            openSegment(0);
+        } else {
+            for (Path file : files) {
+                segments.put(baseOffset(file), map(file));
+            }
+            activeBase = segments.lastKey();
+            active = segments.lastEntry().getValue();
+            int end = scanEnd(active);
+            // Zero the length slot after the last good record so a torn tail is never read back.
+            if (end + Integer.BYTES <= segmentSize) {
+                active.putInt(end, 0);
+            }
+            active.position(end);
+            nextOffset = activeBase + end;
+        }
+        durableOffset.set(nextOffset);
+    }
+
+    /**
+     * Appends one event and returns its offset. The event is visible to readers immediately and durable
+     * after the next {@link #flush()}.
+     */
+    public long append(CirculationEventType type, long timestamp, UUID subjectId, UUID bookId, UUID borrowerId, byte[] detail) {
+        byte[] detailBytes = detail == null ? new byte[0] : detail;
+        if (detailBytes.length > MAX_DETAIL_BYTES) {
+            throw new IllegalArgumentException("Event detail too long: " + detailBytes.length + " bytes");
+        }
+        int bodyLength = FIXED_BODY + detailBytes.length;
+
+        appendLock.lock();
+        try {
+            // Leave room for the zero length that terminates the segment.
+            if (active.position() + FRAME_OVERHEAD + bodyLength + Integer.BYTES > segmentSize) {
+                roll();
+            }
+            int start = active.position();
+            active.putInt(bodyLength);
+            active.put((byte) type.ordinal());
+            active.putLong(timestamp);
+            putUuid(active, subjectId);
+            putUuid(active, bookId);
+            putUuid(active, borrowerId);
+            active.putShort((short) detailBytes.length);
+            active.put(detailBytes);
+
+            crc.reset();
+            crc.update(active.slice(start + Integer.BYTES, bodyLength));
+            active.putInt((int) crc.getValue());
+            active.putInt(active.position(), 0);
+
+            nextOffset = activeBase + active.position();
+            return activeBase + start;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Forces everything appended so far to disk and returns the offset up to which the log is durable.
+     * One call covers every append before it, however many there were.
+     */
+    public long flush() {
+        long target;
+        MappedByteBuffer buffer;
+        appendLock.lock();
+        try {
+            target = nextOffset;
+            buffer = active;
+        } finally {
+            appendLock.unlock();
+        }
+        if (target > durableOffset.get()) {
+            // Outside the lock, so appends carry on while the pages are written back.
+            buffer.force();
+            durableOffset.accumulateAndGet(target, Math::max);
+        }
+        return durableOffset.get();
+    }
+
+    /**
+     * Reads up to {@code max} events starting at {@code fromOffset}, which must be 0 or an offset previously
+     * returned by {@link #append} or {@link LoggedEvent#next()}. Every record is checked the way recovery checks
+     * it, so an offset that is not a record boundary is rejected rather than decoded as garbage.
+     *
+     * @throws IllegalArgumentException if {@code fromOffset} is past the end of the log or not a record boundary
+     * @throws IllegalStateException if a record reached from a valid offset fails its checks
+     */
+    public List<LoggedEvent> read(long fromOffset, int max) {
+        long end = nextOffset;
+        if (fromOffset < 0 || fromOffset > end) {
+            throw new IllegalArgumentException("Offset " + fromOffset + " is outside the log (0 to " + end + ").");
+        }
+        List<LoggedEvent> events = new ArrayList<>();
+        CRC32C check = new CRC32C();
+        Map.Entry<Long, MappedByteBuffer> segment = segments.floorEntry(fromOffset);
+        long offset = fromOffset;
+        while (segment != null && events.size() < max && offset < end) {
+            long base = segment.getKey();
+            ByteBuffer buffer = segment.getValue();
+            int position = (int) (offset - base);
+            int limit = (int) Math.min(segmentSize, end - base);
+            while (events.size() < max && position + FRAME_OVERHEAD <= limit) {
+                int bodyLength = buffer.getInt(position);
+                // A zero length ends the segment's data, but the caller's own offset must point at a record.
+                if (bodyLength == 0 && base + position != fromOffset) {
+                    break;
+                }
+                if (!intact(buffer, position, bodyLength, limit, check)) {
+                    if (base + position == fromOffset) {
+                        throw new IllegalArgumentException("Offset " + fromOffset + " is not a record boundary.");
+                    }
+                    throw new IllegalStateException("Corrupt event log record at offset " + (base + position) + ".");
+                }
+                events.add(decode(buffer, base, position, bodyLength));
+                position += FRAME_OVERHEAD + bodyLength;
+            }
+            if (events.size() == max) {
+                break;
+            }
+            // End of this segment's data: carry on in the next one.
+            segment = segments.higherEntry(base);
+            if (segment != null) {
+                offset = segment.getKey();
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Streams every event from {@code fromOffset} to the current end of the log, {@code batchSize} at a time,
+     * and returns the offset to resume from.
+     */
+    public long replay(long fromOffset, int batchSize, Consumer<LoggedEvent> consumer) {
+        long offset = fromOffset;
+        List<LoggedEvent> batch;
+        while (!(batch = read(offset, batchSize)).isEmpty()) {
+            batch.forEach(consumer);
+            offset = batch.get(batch.size() - 1).next();
+        }
+        return offset;
+    }
+
+    public long nextOffset() {
+        return nextOffset;
+    }
+
+    public long durableOffset() {
+        return durableOffset.get();
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            active.force();
+            durableOffset.set(nextOffset);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Caller holds appendLock. The full segment stays mapped for readers.
+    private void roll() {
+        active.force();
+        durableOffset.accumulateAndGet(nextOffset, Math::max);
+        try {
+            openSegment(activeBase + active.position());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll event log segment", e);
+        }
+    }
+
+    private void openSegment(long base) throws IOException {
+        MappedByteBuffer buffer = map(directory.resolve(String.format("%020d%s", base, SUFFIX)));
+        activeBase = base;
+        active = buffer;
+        segments.put(base, buffer);
+        nextOffset = base;
+    }
+
+    // Mapping past the end preallocates the file; the mapping stays valid after the channel is closed.
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    // Returns the position just past the last intact record.
+    private int scanEnd(ByteBuffer buffer) {
+        CRC32C check = new CRC32C();
+        int position = 0;
+        while (position + FRAME_OVERHEAD <= segmentSize) {
+            int bodyLength = buffer.getInt(position);
+            if (!intact(buffer, position, bodyLength, segmentSize, check)) {
+                break;
+            }
+            position += FRAME_OVERHEAD + bodyLength;
+        }
+        return position;
+    }
+
+    // Whether a whole record with an intact checksum, a known type and a consistent detail length sits at position.
+    private static boolean intact(ByteBuffer buffer, int position, int bodyLength, int limit, CRC32C check) {
+        if (bodyLength < FIXED_BODY || bodyLength > FIXED_BODY + MAX_DETAIL_BYTES
+                || position + FRAME_OVERHEAD + bodyLength > limit) {
+            return false;
+        }
+        check.reset();
+        check.update(buffer.slice(position + Integer.BYTES, bodyLength));
+        if ((int) check.getValue() != buffer.getInt(position + Integer.BYTES + bodyLength)) {
+            return false;
+        }
+        int type = buffer.get(position + Integer.BYTES);
+        int detailLength = buffer.getShort(position + Integer.BYTES + FIXED_BODY - Short.BYTES);
+        return type >= 0 && type < TYPES.length && detailLength == bodyLength - FIXED_BODY;
+    }
+
+    private static LoggedEvent decode(ByteBuffer buffer, long base, int position, int bodyLength) {
+        ByteBuffer body = buffer.slice(position + Integer.BYTES, bodyLength);
+        CirculationEventType type = TYPES[body.get()];
+        long timestamp = body.getLong();
+        UUID subjectId = getUuid(body);
+        UUID bookId = getUuid(body);
+        UUID borrowerId = getUuid(body);
+        byte[] detail = new byte[body.getShort()];
+        body.get(detail);
+        long offset = base + position;
+        return new LoggedEvent(offset, offset + FRAME_OVERHEAD + bodyLength, type, timestamp, subjectId, bookId, borrowerId,
+                detail.length == 0 ? null : detail);
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid == null ? 0 : uuid.getMostSignificantBits());
+        buffer.putLong(uuid == null ? 0 : uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        long most = buffer.getLong();
+        long least = buffer.getLong();
+        return most == 0 && least == 0 ? null : new UUID(most, least);
+    }
+
+    private static long baseOffset(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
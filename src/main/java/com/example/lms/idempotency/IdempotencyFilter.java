@@ -0,0 +1,242 @@
+package com.example.lms.idempotency;
+
+import com.example.lms.dto.diagnostics.IdempotencyStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Makes the configured POST endpoints safe to retry. A request carrying an {@code Idempotency-Key} header claims
+ * the key; duplicates arriving while it runs wait for its outcome instead of running again, and duplicates arriving
+ * afterwards get the stored response replayed without touching the service. Only successful responses are kept:
+ * when the first request fails, the key is released and the next attempt runs normally.
+ * Reusing a key with a different body is rejected with 422. Keys are bounded by the bytes their stored responses
+ * hold rather than by count, so a few large batch responses cannot crowd out memory.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Every create and batch endpoint; lms.idempotency.paths overrides it.
+    private static final String DEFAULT_PATHS = "/books/new,/borrowers/new,/borrowings/new,/authors/new,"
+            + "/borrowings/batch/checkout,/borrowings/batch/return";
+
+    // Rough per-key cost besides the stored body: the key, the fingerprint and the cache entry itself.
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final Set<String> paths;
+    private final Duration waitTimeout;
+    private final long maximumWeight;
+    private final Cache<String, Claim> claims;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public IdempotencyFilter(@Value("${lms.idempotency.paths:" + DEFAULT_PATHS + "}") Set<String> paths,
+                             @Value("${lms.idempotency.maximum-weight:64MB}") DataSize maximumWeight,
+                             @Value("${lms.idempotency.ttl:24h}") Duration ttl,
+                             @Value("${lms.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.paths = Set.copyOf(paths);
+        this.waitTimeout = waitTimeout;
+        this.maximumWeight = maximumWeight.toBytes();
+        this.claims = Caffeine.newBuilder()
+                .maximumWeight(this.maximumWeight)
+                .weigher((String key, Claim claim) -> claim.weight(key))
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public IdempotencyStatsDTO stats() {
+        long weight = claims.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+        return new IdempotencyStatsDTO(claims.estimatedSize(), weight, maximumWeight, executed.sum(), replayed.sum(), joined.sum(), rejected.sum());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !paths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            rejected.increment();
+            reject(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters.");
+            return;
+        }
+        // The body is needed for the fingerprint, so it is read up front and served to the controller from memory.
+        byte[] body = request.getInputStream().readAllBytes();
+        String fingerprint = DigestUtils.md5DigestAsHex(body);
+        String scopedKey = request.getRequestURI() + " " + key;
+
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            Claim claim = new Claim(fingerprint, new CompletableFuture<>());
+            Claim existing = claims.asMap().putIfAbsent(scopedKey, claim);
+            if (existing == null) {
+                execute(new CachedBodyRequest(request, body), response, chain, scopedKey, claim);
+                return;
+            }
+            if (!existing.fingerprint().equals(fingerprint)) {
+                rejected.increment();
+                reject(response, HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used with a different request body.");
+                return;
+            }
+            boolean inFlight = !existing.response().isDone();
+            StoredResponse stored;
+            try {
+                stored = existing.response().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                rejected.increment();
+                reject(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress, retry later.");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            } catch (ExecutionException e) {
+                throw new ServletException(e.getCause());
+            }
+            // Null means the first attempt failed and released the key: try to claim it ourselves.
+            if (stored != null) {
+                (inFlight ? joined : replayed).increment();
+                stored.writeTo(response);
+                return;
+            }
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                         String scopedKey, Claim claim) throws ServletException, IOException {
+        executed.increment();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        StoredResponse stored = null;
+        try {
+            chain.doFilter(request, wrapper);
+            if (HttpStatus.valueOf(wrapper.getStatus()).is2xxSuccessful() && !request.isAsyncStarted()) {
+                stored = new StoredResponse(wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray());
+            }
+        } finally {
+            if (stored == null) {
+                claims.asMap().remove(scopedKey, claim);
+            }
+            claim.response().complete(stored);
+            if (stored != null) {
+                // Claims are weighed when written, so write it again now that it holds the body.
+                claims.asMap().replace(scopedKey, claim, new Claim(claim.fingerprint(), claim.response()));
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(message);
+    }
+
+    private record Claim(String fingerprint, CompletableFuture<StoredResponse> response) {
+
+        int weight(String key) {
+            StoredResponse stored = response.getNow(null);
+            return ENTRY_OVERHEAD + key.length() + (stored != null ? stored.body().length : 0);
+        }
+    }
+
+    private record StoredResponse(int status, String contentType, byte[] body) {
+
+        void writeTo(HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            if (contentType != null) {
+                response.setContentType(contentType);
+            }
+            response.setHeader(REPLAYED_HEADER, "true");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is available at once and read in one callback.
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.lms.metrics;
+
+// Why a checkout was refused; the tag value of lms.checkouts.failed.
+public enum CheckoutFailure {
+    UNAVAILABLE,
+    BOOK_NOT_FOUND,
+    BORROWER_NOT_FOUND
+}
@@ -0,0 +1,55 @@
+package com.example.lms.metrics;
+
+import com.example.lms.event.BorrowingSavedEvent;
+import com.example.lms.model.enums.TransactionStatus;
+import com.example.lms.overdue.OverdueTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Business counters and gauges. Every meter is registered up front, so counting a checkout is a field
+ * read and an increment. Checkouts and returns are counted after commit; refused checkouts are counted by
+ * the service where it refuses them, whether or not anything commits.
+ */
+@Component
+public class CirculationMetrics {
+
+    private final Counter checkouts;
+    private final Counter returns;
+    private final Map<CheckoutFailure, Counter> failedCheckouts = new EnumMap<>(CheckoutFailure.class);
+
+    public CirculationMetrics(MeterRegistry meterRegistry, OverdueTracker overdueTracker) {
+        this.checkouts = Counter.builder("lms.checkouts").description("Loans started").register(meterRegistry);
+        this.returns = Counter.builder("lms.returns").description("Loans returned").register(meterRegistry);
+        for (CheckoutFailure failure : CheckoutFailure.values()) {
+            failedCheckouts.put(failure, Counter.builder("lms.checkouts.failed").description("Checkouts refused")
+                    .tag("reason", failure.name().toLowerCase(Locale.ROOT)).register(meterRegistry));
+        }
+        // Read at scrape time; NaN until the tracker has loaded the open loans.
+        Gauge.builder("lms.loans.open", overdueTracker, tracker -> tracker.isReady() ? tracker.openCount() : Double.NaN)
+                .description("Loans currently borrowed").register(meterRegistry);
+        Gauge.builder("lms.loans.overdue", overdueTracker, tracker -> tracker.isReady() ? tracker.overdueCount(LocalDate.now()) : Double.NaN)
+                .description("Borrowed loans past their return date").register(meterRegistry);
+    }
+
+    public void checkoutFailed(CheckoutFailure failure) {
+        failedCheckouts.get(failure).increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowingSaved(BorrowingSavedEvent event) {
+        if (event.previous() == null) {
+            checkouts.increment();
+        } else if (event.previous().getStatus() != TransactionStatus.RETURNED && event.current().getStatus() == TransactionStatus.RETURNED) {
+            returns.increment();
+        }
+    }
+}
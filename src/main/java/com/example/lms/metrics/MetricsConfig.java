@@ -0,0 +1,28 @@
+package com.example.lms.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+
+@Configuration
+public class MetricsConfig {
+
+    // Static, and the registry resolved lazily, so the advisor does not pull the meter registry into existence
+    // while the auto-proxy creator is still being set up. Outermost, so the time includes the commit.
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceMethodTimerAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(Service.class, true), new ServiceMethodTimer(meterRegistry));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
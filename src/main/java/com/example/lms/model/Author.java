@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import java.util.Locale;
 import java.util.UUID;
 
 @Entity
@@ -12,7 +13,7 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "authors")
+@Table(name = "authors", indexes = @Index(name = "ux_authors_normalized_name", columnList = "normalized_name", unique = true))
 public class Author {
 
     @Id
@@ -26,8 +27,22 @@ public class Author {
     @Column(name = "biography")
     private String biography;
 
+    // Lower-cased, whitespace-collapsed name backing the duplicate check. Null only on rows not yet backfilled.
+    @Column(name = "normalized_name")
+    private String normalizedName;
+
     public Author(String name, String biography){
         this.name = name;
         this.biography = biography;
     }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeName() {
+        this.normalizedName = normalizeName(name);
+    }
+
+    public static String normalizeName(String name) {
+        return name == null ? null : name.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
 }
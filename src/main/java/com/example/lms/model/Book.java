@@ -10,7 +10,10 @@ import java.util.UUID;
 @Getter
 @Setter
 @NoArgsConstructor
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_title", columnList = "title"),
+        @Index(name = "idx_books_author_id", columnList = "author_id")
+})
 public class Book {
 
     @Id
@@ -28,7 +31,7 @@ public class Book {
     @Column(name = "category", nullable = false)
     private Category category;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", referencedColumnName = "id")
     private Author author;
 
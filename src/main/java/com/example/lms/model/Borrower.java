@@ -23,7 +23,7 @@ public class Borrower {
     private String name;
 
     @Email
-    @Column(name = "email", nullable = false)
+    @Column(name = "email", nullable = false, unique = true)
     private String email;
 
     @Column(name = "phone_number", nullable = false, unique = true)
@@ -13,7 +13,11 @@ import java.util.UUID;
 @Getter
 @Setter
 @NoArgsConstructor
-@Table(name = "borrowing_transactions")
+@Table(name = "borrowing_transactions", indexes = {
+        @Index(name = "idx_borrowings_status_return_date", columnList = "transaction_status, return_date"),
+        @Index(name = "idx_borrowings_book_id", columnList = "book_id"),
+        @Index(name = "idx_borrowings_borrower_id", columnList = "borrower_id")
+})
 public class BorrowingTransaction {
 
     @Id
@@ -21,11 +25,11 @@ public class BorrowingTransaction {
     @Column(name = "id", updatable = false, nullable = false, unique = true)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id", referencedColumnName = "id", nullable = false)
     private Book book;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "borrower_id", referencedColumnName = "id", nullable = true)
     private Borrower borrower;
 
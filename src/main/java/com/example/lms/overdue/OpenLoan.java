@@ -0,0 +1,22 @@
+package com.example.lms.overdue;
+
+import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
+import com.example.lms.model.enums.TransactionStatus;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.UUID;
+
+// A BORROWED loan as the overdue tracker holds it, ordered by due date.
+public record OpenLoan(UUID id, UUID bookId, UUID borrowerId, LocalDate borrowDate, LocalDate returnDate) {
+
+    static final Comparator<OpenLoan> BY_DUE_DATE = Comparator.comparing(OpenLoan::returnDate).thenComparing(OpenLoan::id);
+
+    public static OpenLoan of(BorrowingTransactionResponseDTO dto) {
+        return new OpenLoan(dto.getId(), dto.getBookId(), dto.getBorrowerId(), dto.getBorrowDate(), dto.getReturnDate());
+    }
+
+    public BorrowingTransactionResponseDTO toResponse() {
+        return new BorrowingTransactionResponseDTO(id, bookId, borrowerId, borrowDate, returnDate, TransactionStatus.BORROWED);
+    }
+}
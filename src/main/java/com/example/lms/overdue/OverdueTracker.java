@@ -0,0 +1,283 @@
+package com.example.lms.overdue;
+
+import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
+import com.example.lms.event.BookDeletedEvent;
+import com.example.lms.event.BooksClearedEvent;
+import com.example.lms.event.BorrowerDeletedEvent;
+import com.example.lms.event.BorrowersClearedEvent;
+import com.example.lms.event.BorrowingDeletedEvent;
+import com.example.lms.event.BorrowingSavedEvent;
+import com.example.lms.event.BorrowingsClearedEvent;
+import com.example.lms.model.enums.TransactionStatus;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Keeps every BORROWED loan in memory, split into loans that are not due yet and loans that are overdue,
+ * both ordered by return date. A sweep only moves the head of the pending set that has fallen due, so its
+ * cost follows the number of loans that became overdue rather than the number of open loans.
+ * Until the startup scan completes {@link #isReady()} is false and callers should fall back to the database.
+ */
+@Component
+public class OverdueTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueTracker.class);
+
+    private final BorrowingTransactionRepository borrowingTransactionRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<UUID, OpenLoan> loans = new HashMap<>();
+    private final TreeSet<OpenLoan> pending = new TreeSet<>(OpenLoan.BY_DUE_DATE);
+    private final TreeSet<OpenLoan> overdue = new TreeSet<>(OpenLoan.BY_DUE_DATE);
+    private LocalDate sweptThrough = LocalDate.MIN;
+
+    // Changes that land while the startup scan is running must win over the (older) scanned rows.
+    private final Set<UUID> touchedDuringWarmup = new HashSet<>();
+    private final Set<UUID> ownersRemovedDuringWarmup = new HashSet<>();
+    private boolean clearedDuringWarmup;
+
+    private volatile boolean ready;
+
+    public OverdueTracker(BorrowingTransactionRepository borrowingTransactionRepository) {
+        this.borrowingTransactionRepository = borrowingTransactionRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Overdue loans as of {@code today}, longest overdue first.
+     */
+    public List<BorrowingTransactionResponseDTO> overdue(LocalDate today, int limit) {
+        sweep(today);
+        lock.readLock().lock();
+        try {
+            List<BorrowingTransactionResponseDTO> result = new ArrayList<>(Math.min(limit, overdue.size()));
+            for (OpenLoan loan : overdue) {
+                if (result.size() == limit) {
+                    break;
+                }
+                result.add(loan.toResponse());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int overdueCount(LocalDate today) {
+        sweep(today);
+        lock.readLock().lock();
+        try {
+            return overdue.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int openCount() {
+        lock.readLock().lock();
+        try {
+            return loans.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${lms.overdue.sweep-interval:1m}")
+    public void sweep() {
+        sweep(LocalDate.now());
+    }
+
+    /**
+     * Moves every pending loan due before {@code today} to the overdue set.
+     */
+    public void sweep(LocalDate today) {
+        lock.writeLock().lock();
+        try {
+            if (!today.isAfter(sweptThrough)) {
+                return;
+            }
+            int moved = 0;
+            while (!pending.isEmpty() && pending.first().returnDate().isBefore(today)) {
+                overdue.add(pending.pollFirst());
+                moved++;
+            }
+            sweptThrough = today;
+            if (moved > 0) {
+                log.info("{} loans became overdue as of {}", moved, today);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        long start = System.nanoTime();
+        try (Stream<OpenLoan> open = borrowingTransactionRepository.streamOpenLoans()) {
+            open.forEach(this::seed);
+        }
+        lock.writeLock().lock();
+        try {
+            touchedDuringWarmup.clear();
+            ownersRemovedDuringWarmup.clear();
+            clearedDuringWarmup = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        sweep();
+        log.info("Overdue tracker loaded {} open loans in {} ms", openCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowingSaved(BorrowingSavedEvent event) {
+        BorrowingTransactionResponseDTO current = event.current();
+        if (current.getStatus() == TransactionStatus.BORROWED && current.getReturnDate() != null) {
+            put(OpenLoan.of(current));
+        } else {
+            remove(current.getId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowingDeleted(BorrowingDeletedEvent event) {
+        remove(event.transactionId());
+    }
+
+    // Book and borrower deletes take their loans with them. Those are rare admin operations, so a scan is fine.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookDeleted(BookDeletedEvent event) {
+        UUID bookId = event.book().getId();
+        removeIf(bookId, loan -> bookId.equals(loan.bookId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowerDeleted(BorrowerDeletedEvent event) {
+        removeIf(event.borrowerId(), loan -> event.borrowerId().equals(loan.borrowerId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowingsCleared(BorrowingsClearedEvent event) {
+        clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksCleared(BooksClearedEvent event) {
+        clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowersCleared(BorrowersClearedEvent event) {
+        clear();
+    }
+
+    private void put(OpenLoan loan) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                touchedDuringWarmup.add(loan.id());
+            }
+            unlink(loans.remove(loan.id()));
+            link(loan);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(UUID loanId) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                touchedDuringWarmup.add(loanId);
+            }
+            unlink(loans.remove(loanId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeIf(UUID ownerId, Predicate<OpenLoan> condition) {
+        lock.writeLock().lock();
+        try {
+            // Loans of this book or borrower that the startup scan has not reached yet must not come back either.
+            if (!ready) {
+                ownersRemovedDuringWarmup.add(ownerId);
+            }
+            for (OpenLoan loan : loans.values().stream().filter(condition).toList()) {
+                unlink(loans.remove(loan.id()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                clearedDuringWarmup = true;
+            }
+            loans.clear();
+            pending.clear();
+            overdue.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void seed(OpenLoan loan) {
+        lock.writeLock().lock();
+        try {
+            if (clearedDuringWarmup || loans.containsKey(loan.id()) || touchedDuringWarmup.contains(loan.id())
+                    || ownersRemovedDuringWarmup.contains(loan.bookId()) || ownersRemovedDuringWarmup.contains(loan.borrowerId())) {
+                return;
+            }
+            link(loan);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock.
+    private void link(OpenLoan loan) {
+        loans.put(loan.id(), loan);
+        if (loan.returnDate().isBefore(sweptThrough)) {
+            overdue.add(loan);
+        } else {
+            pending.add(loan);
+        }
+    }
+
+    private void unlink(OpenLoan loan) {
+        if (loan != null) {
+            pending.remove(loan);
+            overdue.remove(loan);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.lms.repository;
+
+import java.util.UUID;
+
+// One (author, book ISBN) pair.
+public interface AuthorIsbnView {
+    UUID getAuthorId();
+    String getIsbn();
+}
@@ -0,0 +1,9 @@
+package com.example.lms.repository;
+
+import java.util.UUID;
+
+// Projection for lookups that only need an author's id and name.
+public interface AuthorNameView {
+    UUID getId();
+    String getName();
+}
@@ -1,13 +1,32 @@
 package com.example.lms.repository;
 
 import com.example.lms.model.Author;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, UUID> {
-    List<Author> findByNameContainingIgnoreCase(String name);
+    boolean existsByNormalizedName(String normalizedName);
+
+    @Query("SELECT a.id FROM Author a")
+    List<UUID> findIds(Limit limit);
+
+    @Query("SELECT a FROM Author a WHERE a.normalizedName IS NULL AND a.id > :after ORDER BY a.id")
+    List<Author> findUnnormalizedAfter(@Param("after") UUID after, Limit limit);
+
+    List<AuthorNameView> findByIdIn(Collection<UUID> ids);
+
+    // Keyset pagination, same scheme as books.
+    @Query("SELECT a FROM Author a ORDER BY a.id")
+    List<Author> findFirstPage(Limit limit);
+
+    @Query("SELECT a FROM Author a WHERE a.id > :after ORDER BY a.id")
+    List<Author> findPageAfter(@Param("after") UUID after, Limit limit);
 }
@@ -1,46 +1,140 @@
 package com.example.lms.repository;
 
-import com.example.lms.model.Author;
+import com.example.lms.cache.BookSnapshot;
+import com.example.lms.dto.book.BookResponseDTO;
 import com.example.lms.model.Book;
-import com.example.lms.model.enums.Category;
+import com.example.lms.search.IndexedBook;
+import com.example.lms.stats.CategoryCount;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, UUID> {
+public interface BookRepository extends JpaRepository<Book, UUID>, BookSearchRepository {
     @Modifying
     @Query("UPDATE Book b SET b.author = null WHERE b.author.id = :authorId")
     void clearAuthorByAuthorId(@Param("authorId") UUID authorId);
 
+    @Modifying
+    @Query("UPDATE Book b SET b.author = null WHERE b.author.id IN :authorIds")
+    int clearAuthorByAuthorIdIn(@Param("authorIds") Collection<UUID> authorIds);
+
+    @Query("SELECT b.id FROM Book b")
+    List<UUID> findIds(Limit limit);
+
+    @Query("SELECT new com.example.lms.stats.CategoryCount(b.category, COUNT(b), SUM(CASE WHEN b.available = true THEN 1L ELSE 0L END)) " +
+            "FROM Book b GROUP BY b.category")
+    List<CategoryCount> countByCategory();
+
     @Modifying
     @Query("UPDATE Book b SET b.author = null")
     void clearAllAuthors();
 
-    List<Book> findByTitleContainingIgnoreCase(String title);
+    Optional<Book> findByIsbn(String isbn);
 
-    List<Book> findByCategory(Category category);
+    // Served by idx_books_author_id.
+    @Query("SELECT new com.example.lms.dto.book.BookResponseDTO(b.id, b.title, b.isbn, b.category, b.author.id, b.available) " +
+            "FROM Book b WHERE b.author.id = :authorId")
+    List<BookResponseDTO> findResponsesByAuthorId(@Param("authorId") UUID authorId);
 
-    List<Book> findByAuthor_NameContainingIgnoreCase(String authorName);
+    @Query("SELECT b.isbn FROM Book b WHERE b.author.id = :authorId")
+    List<String> findIsbnsByAuthorId(@Param("authorId") UUID authorId);
 
-    List<Book> findByTitleContainingIgnoreCaseAndCategoryAndAuthor_NameContainingIgnoreCase(String title, Category category, String authorName);
+    // ISBNs for a whole page of authors in one round trip.
+    @Query("SELECT b.author.id AS authorId, b.isbn AS isbn FROM Book b WHERE b.author.id IN :authorIds")
+    List<AuthorIsbnView> findIsbnsByAuthorIds(@Param("authorIds") Collection<UUID> authorIds);
 
-    List<Book> findByTitleContainingIgnoreCaseAndCategory(String title, Category category);
+    boolean existsByIsbn(String isbn);
 
-    List<Book> findByTitleContainingIgnoreCaseAndAuthor_NameContainingIgnoreCase(String title, String author);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.isbn FROM Book b")
+    Stream<String> streamAllIsbns();
 
-    List <Book> findByCategoryAndAuthor_NameContainingIgnoreCase(Category category, String authorName);
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
 
-    Optional<Book> findByIsbn(String isbn);
+    @Query("SELECT new com.example.lms.cache.BookSnapshot(b.id, b.title, b.isbn, b.category, a.id, b.available) " +
+            "FROM Book b LEFT JOIN b.author a WHERE b.id = :id")
+    Optional<BookSnapshot> findSnapshotById(@Param("id") UUID id);
 
-    List<Book> findByAuthor(Author author);
+    @Query("SELECT new com.example.lms.cache.BookSnapshot(b.id, b.title, b.isbn, b.category, a.id, b.available) " +
+            "FROM Book b LEFT JOIN b.author a WHERE b.isbn = :isbn")
+    Optional<BookSnapshot> findSnapshotByIsbn(@Param("isbn") String isbn);
 
-    boolean existsByIsbn(String isbn);
+    @Query("SELECT b.id FROM Book b WHERE b.isbn = :isbn")
+    Optional<UUID> findIdByIsbn(@Param("isbn") String isbn);
+
+    @Query("SELECT new com.example.lms.cache.BookSnapshot(b.id, b.title, b.isbn, b.category, a.id, b.available) " +
+            "FROM Book b LEFT JOIN b.author a WHERE b.isbn IN :isbns")
+    List<BookSnapshot> findSnapshotsByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    @Query("SELECT new com.example.lms.cache.BookSnapshot(b.id, b.title, b.isbn, b.category, a.id, b.available) " +
+            "FROM Book b LEFT JOIN b.author a WHERE b.id IN :ids")
+    List<BookSnapshot> findSnapshotsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.available = :available WHERE b.id = :id")
+    int setAvailability(@Param("id") UUID id, @Param("available") boolean available);
+
+    // Conditional flips: the row lock taken by the UPDATE serializes racing callers, and only one of them sees a count of 1.
+    @Modifying
+    @Query("UPDATE Book b SET b.available = false WHERE b.id = :id AND b.available = true")
+    int claim(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.available = true WHERE b.id = :id AND b.available = false")
+    int release(@Param("id") UUID id);
+
+    // Set-based variants for batches. Rows are locked in id order first, so two overlapping batches cannot deadlock
+    // and the caller knows exactly which books it claimed before the single UPDATE runs.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids AND b.available = true ORDER BY b.id")
+    List<UUID> lockAvailable(@Param("ids") Collection<UUID> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id FROM Book b WHERE b.id IN :ids AND b.available = false ORDER BY b.id")
+    List<UUID> lockUnavailable(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.available = false WHERE b.id IN :ids AND b.available = true")
+    int claimAll(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.available = true WHERE b.id IN :ids AND b.available = false")
+    int releaseAll(@Param("ids") Collection<UUID> ids);
+
+    // Keyset pagination: rows are projected straight into DTOs, so nothing lands in the persistence context.
+    @Query("SELECT new com.example.lms.dto.book.BookResponseDTO(b.id, b.title, b.isbn, b.category, a.id, b.available) " +
+            "FROM Book b LEFT JOIN b.author a ORDER BY b.id")
+    List<BookResponseDTO> findFirstPage(Limit limit);
+
+    @Query("SELECT new com.example.lms.dto.book.BookResponseDTO(b.id, b.title, b.isbn, b.category, a.id, b.available) " +
+            "FROM Book b LEFT JOIN b.author a WHERE b.id > :after ORDER BY b.id")
+    List<BookResponseDTO> findPageAfter(@Param("after") UUID after, Limit limit);
+
+    // Forward-only cursor; must be consumed inside a transaction and closed by the caller.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.lms.dto.book.BookResponseDTO(b.id, b.title, b.isbn, b.category, a.id, b.available) " +
+            "FROM Book b LEFT JOIN b.author a")
+    Stream<BookResponseDTO> streamAll();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.lms.search.IndexedBook(b.id, b.title, b.isbn, b.category, a.id, a.name, b.available) " +
+            "FROM Book b LEFT JOIN b.author a")
+    Stream<IndexedBook> streamAllForIndex();
 }
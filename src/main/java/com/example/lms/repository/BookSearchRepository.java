@@ -0,0 +1,13 @@
+package com.example.lms.repository;
+
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.model.enums.Category;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface BookSearchRepository {
+
+    // Null criteria are left out of the query entirely.
+    List<BookResponseDTO> search(String title, Category category, String authorName, Sort sort, int limit);
+}
@@ -0,0 +1,76 @@
+package com.example.lms.repository;
+
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.model.Author;
+import com.example.lms.model.Book;
+import com.example.lms.model.enums.Category;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class BookSearchRepositoryImpl implements BookSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookResponseDTO> search(String title, Category category, String authorName, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookResponseDTO> query = cb.createQuery(BookResponseDTO.class);
+        Root<Book> book = query.from(Book.class);
+        // Books without an author can only match when no author filter is given.
+        Join<Book, Author> author = book.join("author", authorName != null ? JoinType.INNER : JoinType.LEFT);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (title != null) {
+            predicates.add(cb.like(cb.lower(book.get("title")), containsPattern(title), '\\'));
+        }
+        if (category != null) {
+            predicates.add(cb.equal(book.get("category"), category));
+        }
+        if (authorName != null) {
+            predicates.add(cb.like(cb.lower(author.get("name")), containsPattern(authorName), '\\'));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<?> path = book.get(order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+
+        // Constructor expression: rows never become managed entities.
+        query.select(cb.construct(BookResponseDTO.class,
+                        book.get("id"),
+                        book.get("title"),
+                        book.get("isbn"),
+                        book.get("category"),
+                        author.get("id"),
+                        book.get("available")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(orders);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String containsPattern(String value) {
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
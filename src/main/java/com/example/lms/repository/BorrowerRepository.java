@@ -1,11 +1,18 @@
 package com.example.lms.repository;
 
 import com.example.lms.model.Borrower;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BorrowerRepository extends JpaRepository<Borrower, UUID> {
@@ -15,4 +22,15 @@ public interface BorrowerRepository extends JpaRepository<Borrower, UUID> {
 
     Optional<Borrower> findByEmail(String email);
 
+    @Query("SELECT b.id FROM Borrower b")
+    List<UUID> findIds(Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.email FROM Borrower b")
+    Stream<String> streamAllEmails();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.phoneNumber FROM Borrower b")
+    Stream<String> streamAllPhoneNumbers();
+
 }
@@ -1,17 +1,80 @@
 package com.example.lms.repository;
 
+import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import com.example.lms.model.BorrowingTransaction;
+import com.example.lms.overdue.OpenLoan;
+import com.example.lms.stats.DailyLoanCount;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import com.example.lms.model.Borrower;
-import com.example.lms.model.Book;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BorrowingTransactionRepository extends JpaRepository<BorrowingTransaction, UUID> {
-    List<BorrowingTransaction> findByBorrower(Borrower borrower);
-    List<BorrowingTransaction> findByBook(Book book);
-    void deleteByBorrower(Borrower borrower);
+    // Bulk deletes: one statement each, nothing is loaded into the persistence context.
+    @Modifying
+    @Query("DELETE FROM BorrowingTransaction t WHERE t.book.id = :bookId")
+    int deleteByBookId(@Param("bookId") UUID bookId);
+
+    @Modifying
+    @Query("DELETE FROM BorrowingTransaction t WHERE t.book.id IN :bookIds")
+    int deleteByBookIdIn(@Param("bookIds") Collection<UUID> bookIds);
+
+    @Modifying
+    @Query("DELETE FROM BorrowingTransaction t WHERE t.borrower.id = :borrowerId")
+    int deleteByBorrowerId(@Param("borrowerId") UUID borrowerId);
+
+    @Modifying
+    @Query("DELETE FROM BorrowingTransaction t WHERE t.borrower.id IN :borrowerIds")
+    int deleteByBorrowerIdIn(@Param("borrowerIds") Collection<UUID> borrowerIds);
+
+    // Served by idx_borrowings_status_return_date.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.lms.overdue.OpenLoan(t.id, bk.id, br.id, t.borrowDate, t.returnDate) " +
+            "FROM BorrowingTransaction t JOIN t.book bk LEFT JOIN t.borrower br " +
+            "WHERE t.status = com.example.lms.model.enums.TransactionStatus.BORROWED")
+    Stream<OpenLoan> streamOpenLoans();
+
+    @Query("SELECT new com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO(t.id, bk.id, br.id, t.borrowDate, t.returnDate, t.status) " +
+            "FROM BorrowingTransaction t JOIN t.book bk LEFT JOIN t.borrower br " +
+            "WHERE t.status = com.example.lms.model.enums.TransactionStatus.BORROWED AND t.returnDate < :today " +
+            "ORDER BY t.returnDate, t.id")
+    List<BorrowingTransactionResponseDTO> findOverdue(@Param("today") LocalDate today, Limit limit);
+
+    @Query("SELECT COUNT(t) FROM BorrowingTransaction t " +
+            "WHERE t.status = com.example.lms.model.enums.TransactionStatus.BORROWED AND t.returnDate < :today")
+    long countOverdue(@Param("today") LocalDate today);
+
+    @Query("SELECT new com.example.lms.stats.DailyLoanCount(t.borrowDate, bk.category, COUNT(t)) " +
+            "FROM BorrowingTransaction t JOIN t.book bk WHERE t.borrowDate >= :since GROUP BY t.borrowDate, bk.category")
+    List<DailyLoanCount> countLoansSince(@Param("since") LocalDate since);
+
+    @Query("SELECT t.id FROM BorrowingTransaction t")
+    List<UUID> findIds(Limit limit);
+
+    @Query("SELECT new com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO(t.id, bk.id, br.id, t.borrowDate, t.returnDate, t.status) " +
+            "FROM BorrowingTransaction t JOIN t.book bk LEFT JOIN t.borrower br WHERE t.id IN :ids")
+    List<BorrowingTransactionResponseDTO> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Locked in id order, like BookRepository.lockAvailable, so overlapping batch returns cannot deadlock.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id FROM BorrowingTransaction t WHERE t.id IN :ids AND t.status = com.example.lms.model.enums.TransactionStatus.BORROWED ORDER BY t.id")
+    List<UUID> lockOpen(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE BorrowingTransaction t SET t.status = com.example.lms.model.enums.TransactionStatus.RETURNED WHERE t.id IN :ids")
+    int markReturned(@Param("ids") Collection<UUID> ids);
 }
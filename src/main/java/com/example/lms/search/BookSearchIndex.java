@@ -0,0 +1,458 @@
+package com.example.lms.search;
+
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.event.AuthorDeletedEvent;
+import com.example.lms.event.AuthorRenamedEvent;
+import com.example.lms.event.AuthorsClearedEvent;
+import com.example.lms.event.BookAvailabilityChangedEvent;
+import com.example.lms.event.BookDeletedEvent;
+import com.example.lms.event.BookSavedEvent;
+import com.example.lms.event.BooksClearedEvent;
+import com.example.lms.model.enums.Category;
+import com.example.lms.repository.BookRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over book titles and author names, with one bitmap per category.
+ * Every book gets a dense doc id. Trigram and author postings are sorted doc id arrays, so a rare
+ * trigram costs a few bytes however large the catalog is; only the few category sets and the live set
+ * are bitmaps. A search walks the shortest postings list, probes the others and the category bitmap,
+ * and runs a substring check on the surviving candidates.
+ * Until the startup scan completes {@link #isReady()} is false and callers should fall back to the database.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    private final BookRepository bookRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<UUID, Integer> docIds = new HashMap<>();
+    private final List<Entry> docs = new ArrayList<>();
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final Map<Long, Postings> titleGrams = new HashMap<>();
+    private final Map<Long, Postings> authorGrams = new HashMap<>();
+    private final Map<Category, BitSet> categories = new EnumMap<>(Category.class);
+    private final Map<UUID, Postings> authorDocs = new HashMap<>();
+
+    // Changes that land while the startup scan is running must win over the (older) scanned rows.
+    // Books saved meanwhile are already indexed and are skipped; the other events are replayed onto the scanned row.
+    private final Set<UUID> removedDuringWarmup = new HashSet<>();
+    private final Map<UUID, Boolean> availabilityDuringWarmup = new HashMap<>();
+    private final Map<UUID, String> authorsRenamedDuringWarmup = new HashMap<>();
+    private final Set<UUID> authorsRemovedDuringWarmup = new HashSet<>();
+    private boolean clearedDuringWarmup;
+    private boolean authorsClearedDuringWarmup;
+
+    private volatile boolean ready;
+
+    public BookSearchIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Same semantics as the repository finders: case-insensitive "contains" on title and author name,
+     * exact match on category. Null arguments are not filtered on. Only the first {@code limit} matches
+     * in {@code order} are kept, so the cost of ordering grows with the limit rather than the match count.
+     */
+    public List<BookResponseDTO> search(String title, Category category, String authorName, Comparator<IndexedBook> order, int limit) {
+        String titleKey = normalize(title);
+        String authorKey = normalize(authorName);
+
+        lock.readLock().lock();
+        try {
+            BitSet categoryDocs = null;
+            if (category != null) {
+                categoryDocs = categories.get(category);
+                if (categoryDocs == null) {
+                    return List.of();
+                }
+            }
+            List<Postings> postings = new ArrayList<>();
+            if (titleKey != null && !addPostings(postings, titleGrams, titleKey)) {
+                return List.of();
+            }
+            if (authorKey != null && !addPostings(postings, authorGrams, authorKey)) {
+                return List.of();
+            }
+
+            // The heap's head is the worst match kept so far.
+            PriorityQueue<IndexedBook> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, order.reversed());
+            if (postings.isEmpty()) {
+                BitSet candidates = categoryDocs != null ? categoryDocs : live;
+                for (int docId = candidates.nextSetBit(0); docId >= 0; docId = candidates.nextSetBit(docId + 1)) {
+                    offer(best, docs.get(docId), titleKey, authorKey, limit);
+                }
+            } else {
+                postings.sort(Comparator.comparingInt(Postings::size));
+                Postings shortest = postings.get(0);
+                candidates:
+                for (int i = 0; i < shortest.size(); i++) {
+                    int docId = shortest.get(i);
+                    if (categoryDocs != null && !categoryDocs.get(docId)) {
+                        continue;
+                    }
+                    for (int j = 1; j < postings.size(); j++) {
+                        if (!postings.get(j).contains(docId)) {
+                            continue candidates;
+                        }
+                    }
+                    offer(best, docs.get(docId), titleKey, authorKey, limit);
+                }
+            }
+
+            List<IndexedBook> matches = new ArrayList<>(best);
+            matches.sort(order);
+            List<BookResponseDTO> results = new ArrayList<>(matches.size());
+            for (IndexedBook book : matches) {
+                results.add(book.toResponse());
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Trigrams only prove the pieces are present; confirm the whole substring.
+    private static void offer(PriorityQueue<IndexedBook> best, Entry entry, String titleKey, String authorKey, int limit) {
+        if (titleKey != null && !entry.titleKey().contains(titleKey)) {
+            return;
+        }
+        if (authorKey != null && (entry.authorKey() == null || !entry.authorKey().contains(authorKey))) {
+            return;
+        }
+        best.offer(entry.book());
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        long start = System.nanoTime();
+        try (Stream<IndexedBook> books = bookRepository.streamAllForIndex()) {
+            books.forEach(this::seed);
+        }
+        lock.writeLock().lock();
+        try {
+            removedDuringWarmup.clear();
+            availabilityDuringWarmup.clear();
+            authorsRenamedDuringWarmup.clear();
+            authorsRemovedDuringWarmup.clear();
+            clearedDuringWarmup = false;
+            authorsClearedDuringWarmup = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Book search index built with {} books in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        put(IndexedBook.of(event.current(), event.authorName()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookDeleted(BookDeletedEvent event) {
+        remove(event.book().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksCleared(BooksClearedEvent event) {
+        lock.writeLock().lock();
+        try {
+            docIds.clear();
+            docs.clear();
+            freeDocIds.clear();
+            live.clear();
+            titleGrams.clear();
+            authorGrams.clear();
+            categories.clear();
+            authorDocs.clear();
+            if (!ready) {
+                clearedDuringWarmup = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(BookAvailabilityChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                availabilityDuringWarmup.put(event.bookId(), event.available());
+            }
+            Integer docId = docIds.get(event.bookId());
+            if (docId != null) {
+                Entry entry = docs.get(docId);
+                IndexedBook book = entry.book();
+                docs.set(docId, new Entry(new IndexedBook(book.id(), book.title(), book.isbn(), book.category(),
+                        book.authorId(), book.authorName(), event.available()), entry.titleKey(), entry.authorKey()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Re-indexing touches the author's own postings, so these loops walk a copy of them.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorRenamed(AuthorRenamedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                authorsRenamedDuringWarmup.put(event.authorId(), event.name());
+            }
+            Postings owned = authorDocs.get(event.authorId());
+            if (owned == null) {
+                return;
+            }
+            for (int docId : owned.toArray()) {
+                IndexedBook book = docs.get(docId).book();
+                index(docId, new IndexedBook(book.id(), book.title(), book.isbn(), book.category(),
+                        book.authorId(), event.name(), book.available()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorDeleted(AuthorDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                authorsRenamedDuringWarmup.remove(event.authorId());
+                authorsRemovedDuringWarmup.add(event.authorId());
+            }
+            Postings owned = authorDocs.get(event.authorId());
+            if (owned == null) {
+                return;
+            }
+            for (int docId : owned.toArray()) {
+                detachAuthor(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorsCleared(AuthorsClearedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                authorsRenamedDuringWarmup.clear();
+                authorsClearedDuringWarmup = true;
+            }
+            for (int docId = live.nextSetBit(0); docId >= 0; docId = live.nextSetBit(docId + 1)) {
+                detachAuthor(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(IndexedBook book) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIds.get(book.id());
+            if (docId == null) {
+                docId = allocate(book.id());
+            }
+            index(docId, book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID bookId) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                removedDuringWarmup.add(bookId);
+            }
+            Integer docId = docIds.remove(bookId);
+            if (docId == null) {
+                return;
+            }
+            unindex(docId);
+            docs.set(docId, null);
+            freeDocIds.push(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Startup scan: never overwrite or resurrect anything an event has touched in the meantime, and bring
+    // the (possibly older) scanned row up to date with the availability and author events seen so far.
+    private void seed(IndexedBook book) {
+        lock.writeLock().lock();
+        try {
+            if (clearedDuringWarmup || docIds.containsKey(book.id()) || removedDuringWarmup.contains(book.id())) {
+                return;
+            }
+            boolean available = availabilityDuringWarmup.getOrDefault(book.id(), book.available());
+            UUID authorId = book.authorId();
+            String authorName = book.authorName();
+            if (authorId != null && (authorsClearedDuringWarmup || authorsRemovedDuringWarmup.contains(authorId))) {
+                authorId = null;
+                authorName = null;
+            } else if (authorId != null) {
+                authorName = authorsRenamedDuringWarmup.getOrDefault(authorId, authorName);
+            }
+            index(allocate(book.id()), new IndexedBook(book.id(), book.title(), book.isbn(), book.category(),
+                    authorId, authorName, available));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int allocate(UUID bookId) {
+        int docId;
+        if (freeDocIds.isEmpty()) {
+            docId = docs.size();
+            docs.add(null);
+        } else {
+            docId = freeDocIds.pop();
+        }
+        docIds.put(bookId, docId);
+        return docId;
+    }
+
+    private void index(int docId, IndexedBook book) {
+        unindex(docId);
+
+        Entry entry = new Entry(book, normalize(book.title()), normalize(book.authorName()));
+        docs.set(docId, entry);
+        live.set(docId);
+        if (book.category() != null) {
+            categories.computeIfAbsent(book.category(), c -> new BitSet()).set(docId);
+        }
+        if (book.authorId() != null) {
+            authorDocs.computeIfAbsent(book.authorId(), id -> new Postings()).add(docId);
+        }
+        setGrams(titleGrams, entry.titleKey(), docId, true);
+        setGrams(authorGrams, entry.authorKey(), docId, true);
+    }
+
+    private void unindex(int docId) {
+        Entry entry = docId < docs.size() ? docs.get(docId) : null;
+        if (entry == null) {
+            return;
+        }
+        live.clear(docId);
+        BitSet category = categories.get(entry.book().category());
+        if (category != null) {
+            category.clear(docId);
+        }
+        if (entry.book().authorId() != null) {
+            Postings owned = authorDocs.get(entry.book().authorId());
+            if (owned != null) {
+                owned.remove(docId);
+                if (owned.isEmpty()) {
+                    authorDocs.remove(entry.book().authorId());
+                }
+            }
+        }
+        setGrams(titleGrams, entry.titleKey(), docId, false);
+        setGrams(authorGrams, entry.authorKey(), docId, false);
+    }
+
+    private void detachAuthor(int docId) {
+        IndexedBook book = docs.get(docId).book();
+        index(docId, new IndexedBook(book.id(), book.title(), book.isbn(), book.category(), null, null, book.available()));
+    }
+
+    // Returns false when some trigram of the key has no postings at all, i.e. nothing can match.
+    private static boolean addPostings(List<Postings> filters, Map<Long, Postings> grams, String key) {
+        if (key.length() < 3) {
+            return true; // Too short for trigrams; the substring check does the filtering.
+        }
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            Postings postings = grams.get(trigram(key, i));
+            if (postings == null || postings.isEmpty()) {
+                return false;
+            }
+            filters.add(postings);
+        }
+        return true;
+    }
+
+    private static void setGrams(Map<Long, Postings> grams, String key, int docId, boolean value) {
+        if (key == null) {
+            return;
+        }
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            long gram = trigram(key, i);
+            if (value) {
+                grams.computeIfAbsent(gram, g -> new Postings()).add(docId);
+            } else {
+                Postings postings = grams.get(gram);
+                if (postings != null) {
+                    postings.remove(docId);
+                    if (postings.isEmpty()) {
+                        grams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long trigram(String key, int offset) {
+        return ((long) key.charAt(offset) << 32) | ((long) key.charAt(offset + 1) << 16) | key.charAt(offset + 2);
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(IndexedBook book, String titleKey, String authorKey) {
+    }
+}
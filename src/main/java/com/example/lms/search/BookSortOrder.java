@@ -0,0 +1,48 @@
+package com.example.lms.search;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Sort orders accepted by book search. The same {@link Sort} drives the SQL ORDER BY and the
+ * in-memory comparator, and always ends with the id so that results are deterministic.
+ */
+public final class BookSortOrder {
+
+    private static final Map<String, Function<IndexedBook, Comparable<?>>> KEYS = Map.of(
+            "title", IndexedBook::title,
+            "isbn", IndexedBook::isbn,
+            "category", book -> book.category().name(),
+            "available", IndexedBook::available
+    );
+
+    private BookSortOrder() {
+    }
+
+    public static Sort resolve(Sort requested) {
+        Sort sort = requested == null || requested.isUnsorted() ? Sort.by("title") : requested;
+        for (Sort.Order order : sort) {
+            if (!KEYS.containsKey(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort books by '" + order.getProperty() + "'. Allowed: " + KEYS.keySet());
+            }
+        }
+        return sort.and(Sort.by("id"));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Comparator<IndexedBook> comparator(Sort sort) {
+        Comparator<IndexedBook> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            if (order.getProperty().equals("id")) {
+                continue;
+            }
+            Function<IndexedBook, Comparable> key = (Function) KEYS.get(order.getProperty());
+            Comparator<IndexedBook> next = Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? next : next.reversed());
+        }
+        return comparator.thenComparing(IndexedBook::id);
+    }
+}
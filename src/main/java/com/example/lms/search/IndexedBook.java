@@ -0,0 +1,17 @@
+package com.example.lms.search;
+
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.model.enums.Category;
+
+import java.util.UUID;
+
+public record IndexedBook(UUID id, String title, String isbn, Category category, UUID authorId, String authorName, boolean available) {
+
+    public static IndexedBook of(BookResponseDTO book, String authorName) {
+        return new IndexedBook(book.getId(), book.getTitle(), book.getIsbn(), book.getCategory(), book.getAuthorId(), authorName, book.isAvailable());
+    }
+
+    public BookResponseDTO toResponse() {
+        return new BookResponseDTO(id, title, isbn, category, authorId, available);
+    }
+}
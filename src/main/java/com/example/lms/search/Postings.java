@@ -0,0 +1,72 @@
+package com.example.lms.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate-free list of doc ids backed by an {@code int[]}. Costs four bytes per posting however
+ * high the doc ids go, unlike a {@link java.util.BitSet} whose size follows the highest id set.
+ * Appending an id above the current maximum (the common case while the index is built) is amortized O(1);
+ * inserting or removing elsewhere shifts the tail. Not thread-safe; the index guards it with its lock.
+ */
+final class Postings {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] docIds = EMPTY;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int get(int index) {
+        return docIds[index];
+    }
+
+    boolean contains(int docId) {
+        return Arrays.binarySearch(docIds, 0, size, docId) >= 0;
+    }
+
+    void add(int docId) {
+        if (size > 0 && docIds[size - 1] < docId) {
+            grow();
+            docIds[size++] = docId;
+            return;
+        }
+        int index = Arrays.binarySearch(docIds, 0, size, docId);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        grow();
+        System.arraycopy(docIds, insertAt, docIds, insertAt + 1, size - insertAt);
+        docIds[insertAt] = docId;
+        size++;
+    }
+
+    void remove(int docId) {
+        int index = Arrays.binarySearch(docIds, 0, size, docId);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(docIds, index + 1, docIds, index, size - index - 1);
+        size--;
+        if (size == 0) {
+            docIds = EMPTY;
+        }
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(docIds, size);
+    }
+
+    private void grow() {
+        if (size == docIds.length) {
+            docIds = Arrays.copyOf(docIds, Math.max(2, size + (size >> 1) + 1));
+        }
+    }
+}
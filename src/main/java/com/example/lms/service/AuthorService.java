@@ -4,12 +4,24 @@ import com.example.lms.dto.author.AuthorRequestDTO;
 import com.example.lms.dto.author.AuthorResponseDTO;
 import com.example.lms.dto.author.AuthorUpdateDTO;
 import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.dto.response.CursorPageResponse;
+import com.example.lms.event.AuthorDeletedEvent;
+import com.example.lms.event.AuthorRenamedEvent;
+import com.example.lms.event.AuthorsClearedEvent;
 import com.example.lms.exception.EntityNotFoundException;
 import com.example.lms.model.Author;
-import com.example.lms.model.Book;
+import com.example.lms.repository.AuthorIsbnView;
 import com.example.lms.repository.AuthorRepository;
 import com.example.lms.repository.BookRepository;
+import com.example.lms.util.ResponseMappers;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -17,62 +29,61 @@ import java.util.*;
 @Service
 public class AuthorService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthorService.class);
+
     private String authorNotFoundMsg = "Author not found with ID: ";
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final AuthorRepository authorRepository;
     private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AuthorService(AuthorRepository authorRepository, BookRepository bookRepository) {
+    public AuthorService(AuthorRepository authorRepository, BookRepository bookRepository, ApplicationEventPublisher eventPublisher) {
         this.authorRepository = authorRepository;
         this.bookRepository = bookRepository;
+        this.eventPublisher = eventPublisher;
     }
 
-    public List<AuthorResponseDTO> getAllAuthors(){
-        return authorRepository.findAll()
-                .stream()
-                .map(author -> new AuthorResponseDTO(
-                        author.getId(),
-                        author.getName(),
-                        author.getBiography(),
-                        bookRepository.findByAuthor(author)
-                                .stream()
-                                .map(Book::getIsbn)
-                                .toList()
-                ))
+    public CursorPageResponse<AuthorResponseDTO> getAllAuthors(UUID after, int size){
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        // Fetch one extra row to find out whether there is a next page.
+        Limit limit = Limit.of(pageSize + 1);
+        List<Author> authors = after == null
+                ? authorRepository.findFirstPage(limit)
+                : authorRepository.findPageAfter(after, limit);
+        boolean hasNext = authors.size() > pageSize;
+        if (hasNext) {
+            authors = authors.subList(0, pageSize);
+        }
+
+        // All ISBNs for the page in one query, grouped in memory.
+        Map<UUID, List<String>> isbnsByAuthor = new HashMap<>();
+        if (!authors.isEmpty()) {
+            List<UUID> authorIds = authors.stream().map(Author::getId).toList();
+            for (AuthorIsbnView row : bookRepository.findIsbnsByAuthorIds(authorIds)) {
+                isbnsByAuthor.computeIfAbsent(row.getAuthorId(), id -> new ArrayList<>()).add(row.getIsbn());
+            }
+        }
+
+        List<AuthorResponseDTO> dtos = authors.stream()
+                .map(author -> ResponseMappers.toResponse(author, isbnsByAuthor.getOrDefault(author.getId(), List.of())))
                 .toList();
+        return new CursorPageResponse<>(dtos, hasNext ? dtos.get(dtos.size() - 1).getId() : null);
     }
 
     public AuthorResponseDTO getAuthorById(UUID id){
         Author author = authorRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(authorNotFoundMsg + id));
-        return new AuthorResponseDTO(
-                author.getId(),
-                author.getName(),
-                author.getBiography(),
-                bookRepository.findByAuthor(author)
-                                .stream()
-                                .map(Book::getIsbn)
-                                .toList()
-        );
+        return ResponseMappers.toResponse(author, bookRepository.findIsbnsByAuthorId(author.getId()));
     }
 
-    @Transactional
     public List<BookResponseDTO> getBooksByAuthorById(UUID authorId){
-        // Fetch author
-        Author author = authorRepository.findById(authorId)
-                .orElseThrow(() -> new EntityNotFoundException(authorNotFoundMsg + authorId));
-        List<Book> books = bookRepository.findByAuthor_NameContainingIgnoreCase(author.getName());
-        return books.stream()
-                .map(book -> new BookResponseDTO(
-                        book.getId(),
-                        book.getTitle(),
-                        book.getIsbn(),
-                        book.getCategory(),
-                        book.getAuthor().getId(),
-                        book.isAvailable()
-                ))
-                .toList();
-
+        if (!authorRepository.existsById(authorId)) {
+            throw new EntityNotFoundException(authorNotFoundMsg + authorId);
+        }
+        return bookRepository.findResponsesByAuthorId(authorId);
     }
 
     public AuthorResponseDTO createAuthor(AuthorRequestDTO authorRequestDTO){
@@ -82,22 +93,15 @@ public class AuthorService {
         String newBio = authorRequestDTO.getBiography().strip();
 
         // Check if author already exists
-        if(!authorRepository.findByNameContainingIgnoreCase(newName).isEmpty()) {
+        if(authorRepository.existsByNormalizedName(Author.normalizeName(newName))) {
             throw new IllegalArgumentException("Author already exists");
         }
 
         Author newAuthor = new Author(newName, newBio);
-        authorRepository.save(newAuthor);
-
-        return new AuthorResponseDTO(
-                newAuthor.getId(),
-                newAuthor.getName(),
-                newAuthor.getBiography(),
-                bookRepository.findByAuthor(newAuthor)
-                                .stream()
-                                .map(Book::getIsbn)
-                                .toList()
-        );
+        saveUniquelyNamed(newAuthor);
+
+        // A new author has no books yet.
+        return ResponseMappers.toResponse(newAuthor, List.of());
     }
 
     public AuthorResponseDTO update(UUID authorId, AuthorUpdateDTO authorUpdateDTO) {
@@ -109,30 +113,70 @@ public class AuthorService {
         Author author = authorRepository.findById(authorId)
                 .orElseThrow(() -> new EntityNotFoundException(authorNotFoundMsg + authorId));
 
+        // A missing name keeps the current one; a blank one is a mistake
+        if (newName == null) {
+            newName = author.getName();
+        } else if (newName.isBlank()) {
+            throw new IllegalArgumentException("Author name must not be blank");
+        } else {
+            newName = newName.strip();
+        }
+
+        // Names are unique once normalized
+        String normalized = Author.normalizeName(newName);
+        if(!normalized.equals(author.getNormalizedName()) && authorRepository.existsByNormalizedName(normalized)) {
+            throw new IllegalArgumentException("Author already exists");
+        }
+
         // Set fields
         author.setName(newName);
         author.setBiography(newBio);
 
         // Save changes
-        authorRepository.save(author);
+        saveUniquelyNamed(author);
+        eventPublisher.publishEvent(new AuthorRenamedEvent(author.getId(), author.getName()));
 
         // Build response DTO
 
-        return new AuthorResponseDTO(
-                author.getId(),
-                author.getName(),
-                author.getBiography(),
-                bookRepository.findByAuthor(author)
-                                .stream()
-                                .map(Book::getIsbn)
-                                .toList()
-        );
+        return ResponseMappers.toResponse(author, bookRepository.findIsbnsByAuthorId(author.getId()));
+    }
+
+    // The existence checks above race with concurrent writers; the unique index settles it.
+    private void saveUniquelyNamed(Author author) {
+        try {
+            authorRepository.save(author);
+        } catch (DataIntegrityViolationException e) {
+            if (authorRepository.existsByNormalizedName(Author.normalizeName(author.getName()))) {
+                throw new IllegalArgumentException("Author already exists");
+            }
+            throw e;
+        }
+    }
+
+    // Rows created before normalized_name existed are filled in once at startup. Names that collide after
+    // normalization are left null (and logged) rather than failing startup.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillNormalizedNames(){
+        UUID after = new UUID(0L, 0L);
+        List<Author> batch;
+        while (!(batch = authorRepository.findUnnormalizedAfter(after, Limit.of(500))).isEmpty()) {
+            for (Author author : batch) {
+                try {
+                    author.setNormalizedName(Author.normalizeName(author.getName()));
+                    authorRepository.save(author);
+                } catch (DataIntegrityViolationException e) {
+                    log.warn("Author {} duplicates an existing name after normalization: '{}'", author.getId(), author.getName());
+                }
+            }
+            after = batch.get(batch.size() - 1).getId();
+        }
     }
 
     @Transactional
     public void deleteAuthorById(UUID authorId){
         bookRepository.clearAuthorByAuthorId(authorId);
         authorRepository.deleteById(authorId);
+        eventPublisher.publishEvent(new AuthorDeletedEvent(authorId));
     }
 
 
@@ -142,7 +186,8 @@ public class AuthorService {
         bookRepository.clearAllAuthors();
 
         // Delete all authors
-        authorRepository.deleteAll();
+        authorRepository.deleteAllInBatch();
+        eventPublisher.publishEvent(new AuthorsClearedEvent());
     }
 
 }
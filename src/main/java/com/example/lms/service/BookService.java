@@ -1,21 +1,33 @@
 package com.example.lms.service;
+import com.example.lms.archive.BorrowingArchive;
+import com.example.lms.bloom.UniqueKeyFilters;
+import com.example.lms.cache.BookCache;
+import com.example.lms.cache.BookSnapshot;
 import com.example.lms.dto.book.BookRequestDTO;
 import com.example.lms.dto.book.BookResponseDTO;
 import com.example.lms.dto.book.BookUpdateDTO;
+import com.example.lms.dto.response.CursorPageResponse;
+import com.example.lms.event.BookDeletedEvent;
+import com.example.lms.event.BookSavedEvent;
+import com.example.lms.event.BooksClearedEvent;
 import com.example.lms.exception.EntityNotFoundException;
 import com.example.lms.model.Author;
 import com.example.lms.model.Book;
-import com.example.lms.model.BorrowingTransaction;
 import com.example.lms.model.enums.Category;
 import com.example.lms.repository.AuthorRepository;
 import com.example.lms.repository.BookRepository;
 import com.example.lms.repository.BorrowingTransactionRepository;
-import org.modelmapper.ModelMapper;
+import com.example.lms.search.BookSearchIndex;
+import com.example.lms.search.BookSortOrder;
+import com.example.lms.util.ResponseMappers;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class BookService {
@@ -23,131 +35,61 @@ public class BookService {
     private final String bookNotFoundMsg = "Book not found with ID: ";
     private final String authorNotFoundMsg = "Author not found with ID: ";
 
-    private final ModelMapper modelMapper;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
     private final BorrowingTransactionRepository borrowingTransactionRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookCache bookCache;
+    private final UniqueKeyFilters uniqueKeyFilters;
+    private final BorrowingArchive borrowingArchive;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BookService(ModelMapper modelMapper, BookRepository bookRepository, AuthorRepository authorRepository, BorrowingTransactionRepository borrowingTransactionRepository) {
-        this.modelMapper = modelMapper;
+    public BookService(BookRepository bookRepository, AuthorRepository authorRepository, BorrowingTransactionRepository borrowingTransactionRepository, BookSearchIndex bookSearchIndex, BookCache bookCache, UniqueKeyFilters uniqueKeyFilters, BorrowingArchive borrowingArchive, ApplicationEventPublisher eventPublisher) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
         this.borrowingTransactionRepository = borrowingTransactionRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookCache = bookCache;
+        this.uniqueKeyFilters = uniqueKeyFilters;
+        this.borrowingArchive = borrowingArchive;
+        this.eventPublisher = eventPublisher;
     }
 
-    public List<BookResponseDTO> getAllBooks(){
-        return bookRepository.findAll()
-                .stream()
-                .map(book -> new BookResponseDTO(
-                        book.getId(), book.getTitle(), book.getIsbn(), book.getCategory(), book.getAuthor().getId(), book.isAvailable()
-                        )
-                )
-                .toList();
-    }
-
-    public BookResponseDTO getBookById(UUID id){
-        Book book = bookRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(bookNotFoundMsg + id));
-        return modelMapper.map(book, BookResponseDTO.class);
-    }
-
-    public List<BookResponseDTO> findByTitleAndCategoryAndAuthor(String title, Category category, String authorName) {
-        List<Book> books = bookRepository.findByTitleContainingIgnoreCaseAndCategoryAndAuthor_NameContainingIgnoreCase(title, category, authorName);
-        return books.stream()
-                .map(book -> new BookResponseDTO(
-                        book.getId(),
-                        book.getTitle(),
-                        book.getIsbn(),
-                        book.getCategory(),
-                        book.getAuthor().getId(),
-                        book.isAvailable()))
-                .collect(Collectors.toList());
-    }
+    public CursorPageResponse<BookResponseDTO> getAllBooks(UUID after, int size){
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
 
-    public List<BookResponseDTO> findByTitleAndCategory(String title, Category category) {
-        List<Book> books = bookRepository.findByTitleContainingIgnoreCaseAndCategory(title, category);
-        return books.stream()
-                .map(book -> new BookResponseDTO(
-                        book.getId(),
-                        book.getTitle(),
-                        book.getIsbn(),
-                        book.getCategory(),
-                        book.getAuthor().getId(),
-                        book.isAvailable()
-                ))
-                .collect(Collectors.toList());
-    }
-
-    public List<BookResponseDTO> findByTitleAndAuthor(String title, String authorName) {
-        List<Book> books = bookRepository.findByTitleContainingIgnoreCaseAndAuthor_NameContainingIgnoreCase(title, authorName);
-        return books.stream()
-                .map(book -> new BookResponseDTO(
-                        book.getId(),
-                        book.getTitle(),
-                        book.getIsbn(),
-                        book.getCategory(),
-                        book.getAuthor().getId(),
-                        book.isAvailable()
-                ))
-                .collect(Collectors.toList());
-    }
+        // Fetch one extra row to find out whether there is a next page.
+        Limit limit = Limit.of(pageSize + 1);
+        List<BookResponseDTO> books = after == null
+                ? bookRepository.findFirstPage(limit)
+                : bookRepository.findPageAfter(after, limit);
 
-    public List<BookResponseDTO> findByCategoryAndAuthor(Category category, String authorName){
-        List<Book> books = bookRepository.findByCategoryAndAuthor_NameContainingIgnoreCase(category, authorName);
-        return books.stream()
-                .map(book -> new BookResponseDTO(
-                        book.getId(),
-                        book.getTitle(),
-                        book.getIsbn(),
-                        book.getCategory(),
-                        book.getAuthor().getId(),
-                        book.isAvailable()
-                ))
-                .collect(Collectors.toList());
+        if (books.size() <= pageSize) {
+            return new CursorPageResponse<>(books, null);
+        }
+        List<BookResponseDTO> page = books.subList(0, pageSize);
+        return new CursorPageResponse<>(page, page.get(pageSize - 1).getId());
     }
 
-    public List<BookResponseDTO> findByTitle(String title) {
-        List<Book> books = bookRepository.findByTitleContainingIgnoreCase(title);
-        return books.stream()
-                .map(book -> new BookResponseDTO(
-                        book.getId(),
-                        book.getTitle(),
-                        book.getIsbn(),
-                        book.getCategory(),
-                        book.getAuthor().getId(),
-                        book.isAvailable()
-                ))
-                .collect(Collectors.toList());
+    public BookResponseDTO getBookById(UUID id){
+        return bookCache.findById(id)
+                .map(BookSnapshot::toResponse)
+                .orElseThrow(() -> new EntityNotFoundException(bookNotFoundMsg + id));
     }
 
-    public List<BookResponseDTO> findByCategory (Category category) {
-        List<Book> books = bookRepository.findByCategory(category);
-        return books.stream()
-                .map(book -> new BookResponseDTO(
-                        book.getId(),
-                        book.getTitle(),
-                        book.getIsbn(),
-                        book.getCategory(),
-                        book.getAuthor().getId(),
-                        book.isAvailable()
-                ))
-                .collect(Collectors.toList());
-    }
+    public List<BookResponseDTO> searchBooks(String title, Category category, String authorName, Sort sort, int limit) {
+        Sort order = BookSortOrder.resolve(sort);
+        int maxResults = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
 
-    public List<BookResponseDTO> findByAuthor(String authorName) {
-        List<Book> books = bookRepository.findByAuthor_NameContainingIgnoreCase(authorName);
-        return books.stream()
-                .map(book -> new BookResponseDTO(
-                        book.getId(),
-                        book.getTitle(),
-                        book.getIsbn(),
-                        book.getCategory(),
-                        book.getAuthor().getId(),
-                        book.isAvailable()
-                ))
-                .collect(Collectors.toList());
+        // Answered from memory once the index is warm; the database covers startup.
+        if (bookSearchIndex.isReady()) {
+            return bookSearchIndex.search(title, category, authorName, BookSortOrder.comparator(order), maxResults);
+        }
+        return bookRepository.search(title, category, authorName, order, maxResults);
     }
 
-
     public BookResponseDTO createBook(BookRequestDTO bookRequestDTO) {
         // Fields:
         String title = bookRequestDTO.getTitle().strip();
@@ -159,7 +101,7 @@ public class BookService {
         Author author = authorRepository.findById(authorId).orElseThrow(() -> new EntityNotFoundException(authorNotFoundMsg + authorId));
 
         // Check if ISBN exists
-        if(bookRepository.existsByIsbn(isbn)){
+        if(isbnExists(isbn)){
                 throw new IllegalArgumentException("Book already exists with ISBN: "+isbn);
         }
 
@@ -170,7 +112,9 @@ public class BookService {
         bookRepository.save(newBook);
 
         // Return DTO
-        return modelMapper.map(newBook, BookResponseDTO.class);
+        BookResponseDTO dto = ResponseMappers.toResponse(newBook);
+        eventPublisher.publishEvent(new BookSavedEvent(null, dto, author.getName()));
+        return dto;
     }
 
     public BookResponseDTO update(UUID bookId, BookUpdateDTO bookUpdateDTO) {
@@ -190,11 +134,13 @@ public class BookService {
         Author author = authorRepository.findById(newAuthorId)
                 .orElseThrow(() -> new EntityNotFoundException(authorNotFoundMsg + newAuthorId));
 
+        BookResponseDTO previous = ResponseMappers.toResponse(book);
+
         // Set fields
         book.setTitle(newTitle);
 
         // ISBNs are different:
-        if(!(book.getIsbn().equalsIgnoreCase(newIsbn)) && bookRepository.existsByIsbn(newIsbn)){
+        if(!(book.getIsbn().equalsIgnoreCase(newIsbn)) && isbnExists(newIsbn)){
                 throw new IllegalArgumentException("Book already exists with ISBN: " + newIsbn + ". Provide a unique ISBN.");
         }
 
@@ -207,26 +153,36 @@ public class BookService {
         bookRepository.save(book);
 
         // return DTO
-        return modelMapper.map(book, BookResponseDTO.class);
+        BookResponseDTO dto = ResponseMappers.toResponse(book);
+        eventPublisher.publishEvent(new BookSavedEvent(previous, dto, author.getName()));
+        return dto;
+    }
+
+    public boolean isbnExists(String isbn) {
+        return uniqueKeyFilters.exists(UniqueKeyFilters.Key.ISBN, isbn, candidate -> bookCache.findByIsbn(candidate).isPresent());
     }
 
+    @Transactional
     public void deleteById(UUID bookId){
 
         // Find book.
-        Book book = bookRepository.findById(bookId).orElseThrow(() -> new EntityNotFoundException(bookNotFoundMsg + bookId));
+        BookSnapshot book = bookRepository.findSnapshotById(bookId).orElseThrow(() -> new EntityNotFoundException(bookNotFoundMsg + bookId));
 
-        // There's no need keeping the transactions tied to this book anymore, cascade delete.
-        List<BorrowingTransaction> queries = borrowingTransactionRepository.findByBook(book);
-        for (BorrowingTransaction transaction : queries) {
-                borrowingTransactionRepository.delete(transaction);
-        }
+        // There's no need keeping the transactions tied to this book anymore, cascade delete in one statement.
+        borrowingTransactionRepository.deleteByBookId(bookId);
+        borrowingArchive.deleteByBookIds(List.of(bookId));
 
         // Flush
-        bookRepository.delete(book);
+        bookRepository.deleteAllByIdInBatch(List.of(bookId));
+        eventPublisher.publishEvent(new BookDeletedEvent(book.toResponse()));
     }
 
+    // Two DELETE statements regardless of table size; use PurgeJobService for tables too large for one transaction.
+    @Transactional
     public void deleteAll() {
-        borrowingTransactionRepository.deleteAll(); // Cascade delete
-        bookRepository.deleteAll();
+        borrowingTransactionRepository.deleteAllInBatch(); // Cascade delete
+        borrowingArchive.deleteAll();
+        bookRepository.deleteAllInBatch();
+        eventPublisher.publishEvent(new BooksClearedEvent());
     }
 }
@@ -1,16 +1,22 @@
 package com.example.lms.service;
 
+import com.example.lms.archive.BorrowingArchive;
+import com.example.lms.bloom.UniqueKeyFilters;
 import com.example.lms.dto.borrower.BorrowerRequestDTO;
 import com.example.lms.dto.borrower.BorrowerResponseDTO;
 import com.example.lms.dto.borrower.BorrowerUpdateDTO;
+import com.example.lms.event.BorrowerDeletedEvent;
+import com.example.lms.event.BorrowerSavedEvent;
+import com.example.lms.event.BorrowersClearedEvent;
 import com.example.lms.model.Borrower;
 import com.example.lms.repository.BorrowerRepository;
 import com.example.lms.repository.BorrowingTransactionRepository;
+import com.example.lms.util.ResponseMappers;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -25,12 +31,16 @@ public class BorrowerService {
 
     private BorrowerRepository borrowerRepository;
     private BorrowingTransactionRepository borrowingTransactionRepository;
-    private ModelMapper mapper;
+    private UniqueKeyFilters uniqueKeyFilters;
+    private BorrowingArchive borrowingArchive;
+    private ApplicationEventPublisher eventPublisher;
 
-    public BorrowerService(BorrowerRepository borrowerRepository, BorrowingTransactionRepository borrowingTransactionRepository, ModelMapper mapper){
+    public BorrowerService(BorrowerRepository borrowerRepository, BorrowingTransactionRepository borrowingTransactionRepository, UniqueKeyFilters uniqueKeyFilters, BorrowingArchive borrowingArchive, ApplicationEventPublisher eventPublisher){
         this.borrowerRepository = borrowerRepository;
         this.borrowingTransactionRepository = borrowingTransactionRepository;
-        this.mapper = mapper;
+        this.uniqueKeyFilters = uniqueKeyFilters;
+        this.borrowingArchive = borrowingArchive;
+        this.eventPublisher = eventPublisher;
     }
 
     public BorrowerResponseDTO createBorrower(BorrowerRequestDTO borrowerRequestDTO) {
@@ -55,32 +65,30 @@ public class BorrowerService {
 
         borrowerRepository.save(newBorrower);
 
-        return mapper.map(newBorrower, BorrowerResponseDTO.class);
+        BorrowerResponseDTO dto = ResponseMappers.toResponse(newBorrower);
+        eventPublisher.publishEvent(new BorrowerSavedEvent(null, dto));
+        return dto;
     }
 
     public boolean emailExists(String email) {
-        return borrowerRepository.existsByEmail(email);
+        return uniqueKeyFilters.exists(UniqueKeyFilters.Key.EMAIL, email, borrowerRepository::existsByEmail);
     }
 
     public boolean phoneNumberExists(String phoneNumber) {
-        return borrowerRepository.existsByPhoneNumber(phoneNumber);
+        return uniqueKeyFilters.exists(UniqueKeyFilters.Key.PHONE_NUMBER, phoneNumber, borrowerRepository::existsByPhoneNumber);
     }
 
     public List<BorrowerResponseDTO> getAllBorrowers(){
         return borrowerRepository.findAll().stream()
-                .map(borrower -> new BorrowerResponseDTO(
-                        borrower.getId(),
-                        borrower.getName(),
-                        borrower.getEmail(),
-                        borrower.getPhoneNumber()
-                )).toList();
+                .map(ResponseMappers::toResponse)
+                .toList();
     }
 
     public BorrowerResponseDTO getBorrowerById(UUID id){
         Borrower borrower = borrowerRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(borrowerNotFoundMsg + id));
 
-        return mapper.map(borrower, BorrowerResponseDTO.class);
+        return ResponseMappers.toResponse(borrower);
     }
 
     
@@ -94,6 +102,7 @@ public class BorrowerService {
         Borrower borrower = borrowerRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(borrowerNotFoundMsg + id));
         
+        BorrowerResponseDTO previous = ResponseMappers.toResponse(borrower);
         String oldEmail = borrower.getEmail();
         String oldPhoneNumber = borrower.getPhoneNumber();
 
@@ -110,24 +119,31 @@ public class BorrowerService {
 
         borrowerRepository.save(borrower);
 
-        return mapper.map(borrower, BorrowerResponseDTO.class);
+        BorrowerResponseDTO dto = ResponseMappers.toResponse(borrower);
+        eventPublisher.publishEvent(new BorrowerSavedEvent(previous, dto));
+        return dto;
     }
 
     @Transactional
     public void deleteBorrowerById(UUID id){
 
-        Borrower borrower = borrowerRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException());
+        if (!borrowerRepository.existsById(id)) {
+            throw new EntityNotFoundException(borrowerNotFoundMsg + id);
+        }
 
-        borrowingTransactionRepository.deleteByBorrower(borrower);
+        borrowingTransactionRepository.deleteByBorrowerId(id);
+        borrowingArchive.deleteByBorrowerIds(List.of(id));
 
-        borrowerRepository.delete(borrower);
+        borrowerRepository.deleteAllByIdInBatch(List.of(id));
+        eventPublisher.publishEvent(new BorrowerDeletedEvent(id));
     }
 
     @Transactional
     public void deleteAllBorrowers(){
-        borrowingTransactionRepository.deleteAll();
-        borrowerRepository.deleteAll();
+        borrowingTransactionRepository.deleteAllInBatch();
+        borrowingArchive.deleteAll();
+        borrowerRepository.deleteAllInBatch();
+        eventPublisher.publishEvent(new BorrowersClearedEvent());
     }
 
 }
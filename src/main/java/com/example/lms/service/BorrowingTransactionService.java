@@ -1,41 +1,74 @@
 package com.example.lms.service;
 
+import com.example.lms.archive.BorrowingArchive;
+import com.example.lms.cache.BookCache;
+import com.example.lms.cache.BookSnapshot;
+import com.example.lms.dto.borrowings.BatchCheckoutRequestDTO;
+import com.example.lms.dto.borrowings.BatchItemResultDTO;
+import com.example.lms.dto.borrowings.BatchResultDTO;
+import com.example.lms.dto.borrowings.BatchReturnRequestDTO;
 import com.example.lms.dto.borrowings.BorrowingTransactionRequestDTO;
 import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
 import com.example.lms.dto.borrowings.BorrowingTransactionUpdateDTO;
+import com.example.lms.event.BookAvailabilityChangedEvent;
+import com.example.lms.event.BorrowingDeletedEvent;
+import com.example.lms.event.BorrowingSavedEvent;
+import com.example.lms.event.BorrowingsClearedEvent;
 import com.example.lms.exception.EntityNotFoundException;
-import com.example.lms.model.Book;
+import com.example.lms.metrics.CheckoutFailure;
+import com.example.lms.metrics.CirculationMetrics;
 import com.example.lms.model.Borrower;
 import com.example.lms.model.BorrowingTransaction;
 import com.example.lms.model.enums.TransactionStatus;
+import com.example.lms.overdue.OverdueTracker;
 import com.example.lms.repository.BookRepository;
 import com.example.lms.repository.BorrowerRepository;
 import com.example.lms.repository.BorrowingTransactionRepository;
+import com.example.lms.util.ResponseMappers;
 
 import jakarta.transaction.Transactional;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.modelmapper.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class BorrowingTransactionService {
 
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final BookRepository bookRepository;
     private final BorrowerRepository borrowerRepository;
     private final BorrowingTransactionRepository borrowingTransactionRepository; 
 
-    private ModelMapper mapper;
+    private final BookCache bookCache;
+    private final OverdueTracker overdueTracker;
+    private final BorrowingArchive borrowingArchive;
+    private final CirculationMetrics circulationMetrics;
+
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BorrowingTransactionService(BorrowingTransactionRepository borrowingTransactionRepository, BookRepository bookRepository, BorrowerRepository borrowerRepository, ModelMapper mapper) {
+    public BorrowingTransactionService(BorrowingTransactionRepository borrowingTransactionRepository, BookRepository bookRepository, BorrowerRepository borrowerRepository, BookCache bookCache, OverdueTracker overdueTracker, BorrowingArchive borrowingArchive, CirculationMetrics circulationMetrics, ApplicationEventPublisher eventPublisher) {
         this.borrowingTransactionRepository = borrowingTransactionRepository;
         this.bookRepository = bookRepository;
         this.borrowerRepository = borrowerRepository;
-        this.mapper = mapper;
+        this.bookCache = bookCache;
+        this.overdueTracker = overdueTracker;
+        this.borrowingArchive = borrowingArchive;
+        this.circulationMetrics = circulationMetrics;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -45,21 +78,26 @@ public class BorrowingTransactionService {
         String borrowerEmail = borrowingTransactionRequestDTO.getBorrowerEmail().strip().toLowerCase();
 
         // Fetch book
-        Book requestedBook = bookRepository.findByIsbn(isbn)
-            .orElseThrow(() -> new EntityNotFoundException("Book with ISBN: "+ isbn + " was not found."));
-
-        // Check if book is available
-        if(!requestedBook.isAvailable()){
-            throw new RuntimeException("Book with ISBN: " + isbn + " is unavailable for borrowing.");
+        BookSnapshot requestedBook = bookCache.findByIsbn(isbn).orElse(null);
+        if (requestedBook == null) {
+            circulationMetrics.checkoutFailed(CheckoutFailure.BOOK_NOT_FOUND);
+            throw new EntityNotFoundException("Book with ISBN: "+ isbn + " was not found.");
         }
 
-        // Update book availability
-        requestedBook.setAvailable(false);
-        bookRepository.save(requestedBook);
-
         // Fetch borrower
-        Borrower borrower = borrowerRepository.findByEmail(borrowerEmail)
-                .orElseThrow(() -> new EntityNotFoundException("Borrower with e-mail: " + borrowerEmail + " was not found."));
+        Borrower borrower = borrowerRepository.findByEmail(borrowerEmail).orElse(null);
+        if (borrower == null) {
+            circulationMetrics.checkoutFailed(CheckoutFailure.BORROWER_NOT_FOUND);
+            throw new EntityNotFoundException("Borrower with e-mail: " + borrowerEmail + " was not found.");
+        }
+
+        // Claim the book. The cached availability may be stale, so the conditional update is the only check;
+        // of several concurrent checkouts exactly one sees a row count of 1.
+        if(bookRepository.claim(requestedBook.id()) == 0){
+            circulationMetrics.checkoutFailed(CheckoutFailure.UNAVAILABLE);
+            throw new RuntimeException("Book with ISBN: " + isbn + " is unavailable for borrowing.");
+        }
+        eventPublisher.publishEvent(new BookAvailabilityChangedEvent(requestedBook.id(), requestedBook.category(), false));
 
         // Build transaction
         LocalDate borrowDate = LocalDate.now();
@@ -67,7 +105,7 @@ public class BorrowingTransactionService {
         TransactionStatus status = TransactionStatus.BORROWED;
 
         BorrowingTransaction newBorrowingTransaction = new BorrowingTransaction(
-                requestedBook,
+                bookRepository.getReferenceById(requestedBook.id()),
                 borrower,
                 borrowDate,
                 returnDate,
@@ -76,30 +114,163 @@ public class BorrowingTransactionService {
 
         borrowingTransactionRepository.save(newBorrowingTransaction);
 
-        return mapper.map(newBorrowingTransaction, BorrowingTransactionResponseDTO.class);
+        BorrowingTransactionResponseDTO dto = ResponseMappers.toResponse(newBorrowingTransaction);
+        eventPublisher.publishEvent(new BorrowingSavedEvent(null, dto));
+        return dto;
+    }
+
+    /**
+     * Checks out several books to one borrower in one transaction: the borrower is fetched once, the books
+     * with one IN query, availability is claimed with one locked set-based update, and the new loans are
+     * flushed as one JDBC batch. Items that cannot be borrowed are reported without failing the rest.
+     */
+    @Transactional
+    public BatchResultDTO checkoutBatch(BatchCheckoutRequestDTO batchCheckoutRequestDTO){
+        // Fields
+        String borrowerEmail = batchCheckoutRequestDTO.getBorrowerEmail().strip().toLowerCase();
+        List<String> isbns = checkBatchSize(batchCheckoutRequestDTO.getIsbns()).stream().map(String::strip).toList();
+
+        // Fetch borrower
+        Borrower borrower = borrowerRepository.findByEmail(borrowerEmail).orElse(null);
+        if (borrower == null) {
+            // Every item is refused; counted once per distinct ISBN, like the per-item refusals below.
+            isbns.stream().distinct().forEach(isbn -> circulationMetrics.checkoutFailed(CheckoutFailure.BORROWER_NOT_FOUND));
+            throw new EntityNotFoundException("Borrower with e-mail: " + borrowerEmail + " was not found.");
+        }
+
+        // Fetch books
+        Map<String, BookSnapshot> books = new HashMap<>();
+        for (BookSnapshot book : bookRepository.findSnapshotsByIsbnIn(new HashSet<>(isbns))) {
+            books.put(book.isbn(), book);
+        }
+
+        // Claim every available book at once
+        Set<UUID> claimed = new HashSet<>();
+        if (!books.isEmpty()) {
+            claimed.addAll(bookRepository.lockAvailable(books.values().stream().map(BookSnapshot::id).toList()));
+        }
+        if (!claimed.isEmpty()) {
+            bookRepository.claimAll(claimed);
+        }
+
+        // Build transactions
+        LocalDate borrowDate = LocalDate.now();
+        LocalDate returnDate = borrowDate.plusMonths(1);
+
+        BatchResultDTO result = new BatchResultDTO();
+        List<BorrowingTransaction> newTransactions = new ArrayList<>();
+        List<BatchItemResultDTO> pending = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String isbn : isbns) {
+            BookSnapshot book = books.get(isbn);
+            if (!seen.add(isbn)) {
+                addItem(result, new BatchItemResultDTO(isbn, false, "Duplicate ISBN in request.", null));
+            } else if (book == null) {
+                circulationMetrics.checkoutFailed(CheckoutFailure.BOOK_NOT_FOUND);
+                addItem(result, new BatchItemResultDTO(isbn, false, "Book with ISBN: " + isbn + " was not found.", null));
+            } else if (!claimed.contains(book.id())) {
+                circulationMetrics.checkoutFailed(CheckoutFailure.UNAVAILABLE);
+                addItem(result, new BatchItemResultDTO(isbn, false, "Book with ISBN: " + isbn + " is unavailable for borrowing.", null));
+            } else {
+                newTransactions.add(new BorrowingTransaction(bookRepository.getReferenceById(book.id()), borrower, borrowDate, returnDate, TransactionStatus.BORROWED));
+                BatchItemResultDTO item = new BatchItemResultDTO(isbn, true, null, null);
+                pending.add(item);
+                addItem(result, item);
+                eventPublisher.publishEvent(new BookAvailabilityChangedEvent(book.id(), book.category(), false));
+            }
+        }
+
+        // Ids are assigned on persist; the inserts themselves are batched at flush
+        borrowingTransactionRepository.saveAll(newTransactions);
+        for (int i = 0; i < newTransactions.size(); i++) {
+            BorrowingTransactionResponseDTO dto = ResponseMappers.toResponse(newTransactions.get(i));
+            pending.get(i).setTransaction(dto);
+            eventPublisher.publishEvent(new BorrowingSavedEvent(null, dto));
+        }
+        return result;
+    }
+
+    /**
+     * Returns several loans in one transaction: one IN query to resolve them, then one locked set-based
+     * update for the loans and one for their books. Unknown or already returned loans are reported per item.
+     */
+    @Transactional
+    public BatchResultDTO returnBatch(BatchReturnRequestDTO batchReturnRequestDTO){
+        List<UUID> ids = checkBatchSize(batchReturnRequestDTO.getTransactionIds());
+
+        // Fetch transactions
+        Map<UUID, BorrowingTransactionResponseDTO> transactions = new HashMap<>();
+        for (BorrowingTransactionResponseDTO transaction : borrowingTransactionRepository.findResponsesByIdIn(new HashSet<>(ids))) {
+            transactions.put(transaction.getId(), transaction);
+        }
+
+        // Close every open loan at once, then release its book
+        Set<UUID> returned = new HashSet<>();
+        if (!transactions.isEmpty()) {
+            returned.addAll(borrowingTransactionRepository.lockOpen(transactions.keySet()));
+        }
+        if (!returned.isEmpty()) {
+            borrowingTransactionRepository.markReturned(returned);
+            Set<UUID> bookIds = new HashSet<>();
+            for (UUID id : returned) {
+                bookIds.add(transactions.get(id).getBookId());
+            }
+            // Only books still marked unavailable change; one already available (e.g. after an admin edit)
+            // must not be announced again
+            List<UUID> released = bookRepository.lockUnavailable(bookIds);
+            if (!released.isEmpty()) {
+                bookRepository.releaseAll(released);
+                // Straight from the table: the shared cache must not be filled inside this write transaction
+                for (BookSnapshot book : bookRepository.findSnapshotsByIdIn(released)) {
+                    eventPublisher.publishEvent(new BookAvailabilityChangedEvent(book.id(), book.category(), true));
+                }
+            }
+        }
+
+        BatchResultDTO result = new BatchResultDTO();
+        Set<UUID> seen = new HashSet<>();
+        for (UUID id : ids) {
+            BorrowingTransactionResponseDTO transaction = transactions.get(id);
+            if (!seen.add(id)) {
+                addItem(result, new BatchItemResultDTO(id.toString(), false, "Duplicate transaction ID in request.", null));
+            } else if (transaction == null) {
+                addItem(result, new BatchItemResultDTO(id.toString(), false, "Borrowing with ID: " + id + " was not found.", null));
+            } else if (!returned.contains(id)) {
+                addItem(result, new BatchItemResultDTO(id.toString(), false, "Borrowing with ID: " + id + " is already returned.", transaction));
+            } else {
+                BorrowingTransactionResponseDTO previous = new BorrowingTransactionResponseDTO(transaction.getId(), transaction.getBookId(),
+                        transaction.getBorrowerId(), transaction.getBorrowDate(), transaction.getReturnDate(), transaction.getStatus());
+                transaction.setStatus(TransactionStatus.RETURNED);
+                addItem(result, new BatchItemResultDTO(id.toString(), true, null, transaction));
+                eventPublisher.publishEvent(new BorrowingSavedEvent(previous, transaction));
+            }
+        }
+        return result;
     }
 
+    // Hot and archived loans alike.
     public List<BorrowingTransactionResponseDTO> getAllBorrowings(){
-        return borrowingTransactionRepository.findAll()
-                .stream()
-                .map(borrowingTransaction -> new BorrowingTransactionResponseDTO(
-                        borrowingTransaction.getId(),
-                        borrowingTransaction.getBook().getId(),
-                        borrowingTransaction.getBorrower().getId(),
-                        borrowingTransaction.getBorrowDate(),
-                        borrowingTransaction.getReturnDate(),
-                        borrowingTransaction.getStatus()
-                ))
-                .collect(Collectors.toList());
+        return borrowingArchive.findAllWithHot();
     }
 
     public BorrowingTransactionResponseDTO getBorrowingById(UUID id) {
-        BorrowingTransaction transaction = borrowingTransactionRepository.findById(id)
+        // Hot table first, archived loans second
+        return borrowingTransactionRepository.findById(id)
+                .map(ResponseMappers::toResponse)
+                .or(() -> borrowingArchive.findById(id))
                 .orElseThrow(() -> new EntityNotFoundException("Borrowing with ID: " + id + " was not found."));
+    }
+
+    // Full history, hot and archived, newest first.
+    public List<BorrowingTransactionResponseDTO> getBookHistory(UUID bookId, int limit){
+        return borrowingArchive.findHistoryByBookId(bookId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
 
-        return mapper.map(transaction, BorrowingTransactionResponseDTO.class);
+    public List<BorrowingTransactionResponseDTO> getBorrowerHistory(UUID borrowerId, int limit){
+        return borrowingArchive.findHistoryByBorrowerId(borrowerId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
     }
 
+    @Transactional
     public BorrowingTransactionResponseDTO updateBorrowing(UUID id, BorrowingTransactionUpdateDTO borrowingTransactionUpdateDTO) {
 
         // Fields
@@ -113,25 +284,6 @@ public class BorrowingTransactionService {
 
         TransactionStatus newStatus = borrowingTransactionUpdateDTO.getStatus();
 
-        // Fetch transaction
-        BorrowingTransaction transaction = borrowingTransactionRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Borrowing transaction not found"));
-
-        // Fetch book
-        Book book = transaction.getBook();
-
-        // Status constraints
-        if (transaction.getStatus() == TransactionStatus.RETURNED &&
-                newStatus == TransactionStatus.BORROWED) {
-            throw new IllegalArgumentException("Cannot change status from RETURNED to BORROWED. Create a new transaction.");
-        }
-
-        // If returned, mark book as available
-        if (newStatus == TransactionStatus.RETURNED) {
-            book.setAvailable(true);
-            bookRepository.save(book);
-        }
-
         // Check borrow date validity
         if (newBorrowDate.isAfter(LocalDate.now())) {
             throw new IllegalArgumentException("Borrow date cannot be in the future.");
@@ -143,6 +295,35 @@ public class BorrowingTransactionService {
             throw new IllegalArgumentException("Return date cannot be before the borrow date.");
         }
 
+        // Fetch transaction; archived loans are history and read-only
+        BorrowingTransaction transaction = borrowingTransactionRepository.findById(id).orElse(null);
+        if (transaction == null) {
+            if (borrowingArchive.findById(id).isPresent()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Borrowing transaction " + id + " is archived and can no longer be updated.");
+            }
+            throw new EntityNotFoundException("Borrowing transaction not found");
+        }
+
+        // Book id comes from the foreign key; the lazy book itself is only loaded on release
+        UUID bookId = transaction.getBook().getId();
+        BorrowingTransactionResponseDTO previous = ResponseMappers.toResponse(transaction);
+
+        // Status constraints
+        if (transaction.getStatus() == TransactionStatus.RETURNED &&
+                newStatus == TransactionStatus.BORROWED) {
+            throw new IllegalArgumentException("Cannot change status from RETURNED to BORROWED. Create a new transaction.");
+        }
+
+        // If returned, mark book as available. Only the first return releases it; re-saving an old
+        // RETURNED loan must not free a copy that has since been lent out again. All validation is done
+        // by now, and the category comes from the loan's own book rather than the shared cache, which
+        // must not see this transaction's uncommitted release.
+        if (newStatus == TransactionStatus.RETURNED && transaction.getStatus() != TransactionStatus.RETURNED
+                && bookRepository.release(bookId) == 1) {
+            eventPublisher.publishEvent(new BookAvailabilityChangedEvent(bookId, transaction.getBook().getCategory(), true));
+        }
+
         // Update fields
         transaction.setBorrower(newBorrower);
         transaction.setStatus(newStatus);
@@ -151,17 +332,70 @@ public class BorrowingTransactionService {
 
         borrowingTransactionRepository.save(transaction);
 
-        return mapper.map(transaction, BorrowingTransactionResponseDTO.class);
+        BorrowingTransactionResponseDTO dto = ResponseMappers.toResponse(transaction);
+        eventPublisher.publishEvent(new BorrowingSavedEvent(previous, dto));
+        return dto;
+    }
+
+    /**
+     * Loans still BORROWED past their return date, longest overdue first. Served from the overdue tracker;
+     * until it has loaded, from the (status, return_date) index.
+     */
+    public List<BorrowingTransactionResponseDTO> getOverdueBorrowings(int limit){
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDate today = LocalDate.now();
+        if (overdueTracker.isReady()) {
+            return overdueTracker.overdue(today, pageSize);
+        }
+        return borrowingTransactionRepository.findOverdue(today, Limit.of(pageSize));
+    }
+
+    public long countOverdueBorrowings(){
+        LocalDate today = LocalDate.now();
+        if (overdueTracker.isReady()) {
+            return overdueTracker.overdueCount(today);
+        }
+        return borrowingTransactionRepository.countOverdue(today);
+    }
+
+    private static <T> List<T> checkBatchSize(List<T> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("A batch must contain at least one item.");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_SIZE + " items.");
+        }
+        return items;
+    }
+
+    private static void addItem(BatchResultDTO result, BatchItemResultDTO item) {
+        result.getItems().add(item);
+        if (item.isSuccess()) {
+            result.setSucceeded(result.getSucceeded() + 1);
+        } else {
+            result.setFailed(result.getFailed() + 1);
+        }
     }
 
+    // One transaction, so the hot table and the archive are emptied together or not at all; use
+    // PurgeJobService for tables too large for one transaction.
+    @Transactional
     public void deleteAllBorrowings(){
-        borrowingTransactionRepository.deleteAll();
+        borrowingTransactionRepository.deleteAllInBatch();
+        borrowingArchive.deleteAll();
+        eventPublisher.publishEvent(new BorrowingsClearedEvent());
     }
 
+    // Hot table first, archived loans second, like getBorrowingById.
+    @Transactional
     public void deleteBorrowingById(UUID id){
-            
-        borrowingTransactionRepository.delete(borrowingTransactionRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Borrowing transaction not found")));
+        BorrowingTransaction transaction = borrowingTransactionRepository.findById(id).orElse(null);
+        if (transaction != null) {
+            borrowingTransactionRepository.delete(transaction);
+        } else if (borrowingArchive.deleteById(id) == 0) {
+            throw new EntityNotFoundException("Borrowing transaction not found");
+        }
+        eventPublisher.publishEvent(new BorrowingDeletedEvent(id));
     }
 
 
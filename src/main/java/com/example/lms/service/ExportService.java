@@ -0,0 +1,152 @@
+package com.example.lms.service;
+
+import com.example.lms.archive.BorrowingArchive;
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
+import com.example.lms.repository.BookRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.transaction.Transactional;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes whole tables to a response as they are read. Rows come off a forward-only cursor as DTO
+ * projections, so nothing is attached to the persistence context and memory does not grow with the table.
+ * The borrowing export covers archived loans as well as the hot table.
+ */
+@Service
+public class ExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final List<Column<BookResponseDTO>> BOOK_COLUMNS = List.of(
+            new Column<>("id", BookResponseDTO::getId),
+            new Column<>("title", BookResponseDTO::getTitle),
+            new Column<>("isbn", BookResponseDTO::getIsbn),
+            new Column<>("category", BookResponseDTO::getCategory),
+            new Column<>("authorId", BookResponseDTO::getAuthorId),
+            new Column<>("available", BookResponseDTO::isAvailable)
+    );
+
+    private static final List<Column<BorrowingTransactionResponseDTO>> BORROWING_COLUMNS = List.of(
+            new Column<>("id", BorrowingTransactionResponseDTO::getId),
+            new Column<>("bookId", BorrowingTransactionResponseDTO::getBookId),
+            new Column<>("borrowerId", BorrowingTransactionResponseDTO::getBorrowerId),
+            new Column<>("borrowDate", BorrowingTransactionResponseDTO::getBorrowDate),
+            new Column<>("returnDate", BorrowingTransactionResponseDTO::getReturnDate),
+            new Column<>("status", BorrowingTransactionResponseDTO::getStatus)
+    );
+
+    private final BookRepository bookRepository;
+    private final BorrowingArchive borrowingArchive;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(BookRepository bookRepository, BorrowingArchive borrowingArchive, ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.borrowingArchive = borrowingArchive;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional
+    public void exportBooks(OutputStream out, Format format, boolean gzip) throws IOException {
+        try (Stream<BookResponseDTO> rows = bookRepository.streamAll()) {
+            write(rows, BOOK_COLUMNS, out, format, gzip);
+        }
+    }
+
+    @Transactional
+    public void exportBorrowings(OutputStream out, Format format, boolean gzip) throws IOException {
+        try (Stream<BorrowingTransactionResponseDTO> rows = borrowingArchive.streamAllWithHot()) {
+            write(rows, BORROWING_COLUMNS, out, format, gzip);
+        }
+    }
+
+    public MediaType mediaType(Format format, boolean gzip) {
+        if (gzip) {
+            return MediaType.valueOf("application/gzip");
+        }
+        return format == Format.CSV ? MediaType.valueOf("text/csv") : MediaType.valueOf("application/x-ndjson");
+    }
+
+    public String fileName(String baseName, Format format, boolean gzip) {
+        return baseName + (format == Format.CSV ? ".csv" : ".ndjson") + (gzip ? ".gz" : "");
+    }
+
+    private <T> void write(Stream<T> rows, List<Column<T>> columns, OutputStream out, Format format, boolean gzip) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        Iterator<T> iterator = rows.iterator();
+        if (format == Format.NDJSON) {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .with(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(target)) {
+                boolean any = false;
+                while (iterator.hasNext()) {
+                    writer.write(iterator.next());
+                    any = true;
+                }
+                if (any) {
+                    writer.flush();
+                    target.write('\n');
+                }
+            }
+        } else {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                writeCsvRow(writer, columns.stream().map(Column::name).toList());
+                List<Object> values = new ArrayList<>(columns.size());
+                while (iterator.hasNext()) {
+                    T row = iterator.next();
+                    values.clear();
+                    for (Column<T> column : columns) {
+                        values.add(column.value(row));
+                    }
+                    writeCsvRow(writer, values);
+                }
+            }
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write('\n');
+    }
+
+    private record Column<T>(String name, Function<T, Object> extractor) {
+        Object value(T row) {
+            return extractor.apply(row);
+        }
+    }
+}
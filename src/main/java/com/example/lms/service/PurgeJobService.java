@@ -0,0 +1,260 @@
+package com.example.lms.service;
+
+import com.example.lms.archive.BorrowingArchive;
+import com.example.lms.dto.purge.PurgeJobDTO;
+import com.example.lms.event.AuthorsClearedEvent;
+import com.example.lms.event.BooksClearedEvent;
+import com.example.lms.event.BorrowersClearedEvent;
+import com.example.lms.event.BorrowingsClearedEvent;
+import com.example.lms.exception.EntityNotFoundException;
+import com.example.lms.repository.AuthorRepository;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowerRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Empties whole tables in the background, one chunk of ids per transaction, so a large purge never holds
+ * one long transaction or loads rows into memory. Jobs run one at a time and report progress as they go.
+ * Caches and the search index are cleared once the job completes. Finished jobs are kept for
+ * {@code lms.purge.retention} and then dropped.
+ * Job state lives in a private {@link Job}, written only by the purge thread; DTOs are built from it on request.
+ */
+@Service
+public class PurgeJobService {
+
+    public enum Target { BORROWINGS, BOOKS, BORROWERS, AUTHORS }
+
+    private static final Logger log = LoggerFactory.getLogger(PurgeJobService.class);
+
+    private final BorrowingTransactionRepository borrowingTransactionRepository;
+    private final BookRepository bookRepository;
+    private final BorrowerRepository borrowerRepository;
+    private final AuthorRepository authorRepository;
+    private final BorrowingArchive borrowingArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final Duration retention;
+
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final ReentrantLock startLock = new ReentrantLock();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "purge-jobs");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PurgeJobService(BorrowingTransactionRepository borrowingTransactionRepository,
+                           BookRepository bookRepository,
+                           BorrowerRepository borrowerRepository,
+                           AuthorRepository authorRepository,
+                           BorrowingArchive borrowingArchive,
+                           TransactionTemplate transactionTemplate,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${lms.purge.chunk-size:5000}") int chunkSize,
+                           @Value("${lms.purge.retention:24h}") Duration retention) {
+        this.borrowingTransactionRepository = borrowingTransactionRepository;
+        this.bookRepository = bookRepository;
+        this.borrowerRepository = borrowerRepository;
+        this.authorRepository = authorRepository;
+        this.borrowingArchive = borrowingArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.retention = retention;
+    }
+
+    /**
+     * Queues a purge of {@code target}. If one is already queued or running for the same table, that job
+     * is returned instead of starting a second one.
+     */
+    public PurgeJobDTO start(Target target) {
+        startLock.lock();
+        try {
+            evictFinished();
+            for (Job job : jobs.values()) {
+                if (job.target == target && job.finishedAt == null) {
+                    return job.snapshot();
+                }
+            }
+            Job job = new Job(UUID.randomUUID(), target, Instant.now());
+            jobs.put(job.id, job);
+            executor.execute(() -> run(job));
+            return job.snapshot();
+        } finally {
+            startLock.unlock();
+        }
+    }
+
+    public PurgeJobDTO getJob(UUID id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new EntityNotFoundException("Purge job not found with ID: " + id);
+        }
+        return job.snapshot();
+    }
+
+    public List<PurgeJobDTO> getJobs() {
+        evictFinished();
+        return jobs.values().stream()
+                .map(Job::snapshot)
+                .sorted(Comparator.comparing(PurgeJobDTO::getCreatedAt).reversed())
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job) {
+        Target target = job.target;
+        job.start();
+        try {
+            job.total.set(count(target));
+            int deleted;
+            while ((deleted = transactionTemplate.execute(status -> deleteChunk(target))) > 0) {
+                job.deleted.addAndGet(deleted);
+                job.chunks.incrementAndGet();
+            }
+            if (target == Target.BORROWINGS) {
+                borrowingArchive.deleteAll();
+            }
+            publishCleared(target);
+            job.finish(Status.COMPLETED, null);
+            log.info("Purge of {} deleted {} rows in {} chunks", target, job.deleted.get(), job.chunks.get());
+        } catch (RuntimeException e) {
+            // Chunks already committed stay deleted; caches are cleared so they do not serve purged rows.
+            publishCleared(target);
+            job.finish(Status.FAILED, e.getMessage());
+            log.error("Purge of {} failed after {} rows", target, job.deleted.get(), e);
+        }
+    }
+
+    // Deletes up to one chunk of rows, dependants first, and returns how many rows of the target went.
+    private int deleteChunk(Target target) {
+        switch (target) {
+            case BORROWINGS -> {
+                List<UUID> ids = borrowingTransactionRepository.findIds(Limit.of(chunkSize));
+                if (!ids.isEmpty()) {
+                    borrowingTransactionRepository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            }
+            case BOOKS -> {
+                List<UUID> ids = bookRepository.findIds(Limit.of(chunkSize));
+                if (!ids.isEmpty()) {
+                    borrowingTransactionRepository.deleteByBookIdIn(ids);
+                    borrowingArchive.deleteByBookIds(ids);
+                    bookRepository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            }
+            case BORROWERS -> {
+                List<UUID> ids = borrowerRepository.findIds(Limit.of(chunkSize));
+                if (!ids.isEmpty()) {
+                    borrowingTransactionRepository.deleteByBorrowerIdIn(ids);
+                    borrowingArchive.deleteByBorrowerIds(ids);
+                    borrowerRepository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            }
+            case AUTHORS -> {
+                List<UUID> ids = authorRepository.findIds(Limit.of(chunkSize));
+                if (!ids.isEmpty()) {
+                    bookRepository.clearAuthorByAuthorIdIn(ids);
+                    authorRepository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            }
+        }
+        throw new IllegalArgumentException("Unknown purge target: " + target);
+    }
+
+    private long count(Target target) {
+        return switch (target) {
+            case BORROWINGS -> borrowingTransactionRepository.count();
+            case BOOKS -> bookRepository.count();
+            case BORROWERS -> borrowerRepository.count();
+            case AUTHORS -> authorRepository.count();
+        };
+    }
+
+    private void evictFinished() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            Instant finishedAt = job.finishedAt;
+            return finishedAt != null && finishedAt.isBefore(cutoff);
+        });
+    }
+
+    private void publishCleared(Target target) {
+        switch (target) {
+            case BOOKS -> eventPublisher.publishEvent(new BooksClearedEvent());
+            case BORROWERS -> eventPublisher.publishEvent(new BorrowersClearedEvent());
+            case AUTHORS -> eventPublisher.publishEvent(new AuthorsClearedEvent());
+            case BORROWINGS -> eventPublisher.publishEvent(new BorrowingsClearedEvent());
+        }
+    }
+
+    private enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    // Written by the purge thread only. The status is written last and read first, so a snapshot that sees
+    // a job finished also sees its final counts, finish time and error.
+    private static final class Job {
+
+        private final UUID id;
+        private final Target target;
+        private final Instant createdAt;
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong deleted = new AtomicLong();
+        private final AtomicLong chunks = new AtomicLong();
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private volatile Status status = Status.QUEUED;
+
+        private Job(UUID id, Target target, Instant createdAt) {
+            this.id = id;
+            this.target = target;
+            this.createdAt = createdAt;
+        }
+
+        private void start() {
+            startedAt = Instant.now();
+            status = Status.RUNNING;
+        }
+
+        private void finish(Status outcome, String failure) {
+            error = failure;
+            finishedAt = Instant.now();
+            status = outcome;
+        }
+
+        private PurgeJobDTO snapshot() {
+            Status current = status;
+            return new PurgeJobDTO(id, target.name(), current.name(), total.get(), deleted.get(), (int) chunks.get(),
+                    createdAt, startedAt, finishedAt, error);
+        }
+    }
+}
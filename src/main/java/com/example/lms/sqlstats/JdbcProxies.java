@@ -0,0 +1,121 @@
+package com.example.lms.sqlstats;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Dynamic proxies that report statement executions, JDBC time and rows to a {@link SqlStatsCollector}, which
+ * ignores them outside a tracked request. Statements and result sets are always wrapped, so that
+ * {@code getConnection()} and {@code getStatement()} hand back the proxies: Spring releases a streamed query's
+ * connection through {@code Statement.getConnection()}, and the raw connection would not match the one bound to
+ * the transaction, so it would be closed underneath it.
+ */
+final class JdbcProxies {
+
+    private JdbcProxies() {
+    }
+
+    static Connection connection(Connection target, SqlStatsCollector collector) {
+        return (Connection) Proxy.newProxyInstance(JdbcProxies.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return objectMethod(proxy, target, method, args);
+                    }
+                    Object result = invoke(target, method, args);
+                    if (!(result instanceof Statement statement)) {
+                        return result;
+                    }
+                    Connection connection = (Connection) proxy;
+                    // The SQL of prepared statements and calls is known up front; plain statements pass it per execute.
+                    return switch (method.getName()) {
+                        case "prepareStatement" -> statement(statement, PreparedStatement.class, (String) args[0], connection, collector);
+                        case "prepareCall" -> statement(statement, CallableStatement.class, (String) args[0], connection, collector);
+                        case "createStatement" -> statement(statement, Statement.class, null, connection, collector);
+                        default -> result;
+                    };
+                });
+    }
+
+    private static Statement statement(Statement target, Class<? extends Statement> type, String preparedSql, Connection connection,
+                                       SqlStatsCollector collector) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return objectMethod(proxy, target, method, args);
+            }
+            String name = method.getName();
+            if (name.equals("getConnection")) {
+                return connection;
+            }
+            if (!name.startsWith("execute")) {
+                Object result = invoke(target, method, args);
+                return result instanceof ResultSet resultSet && name.equals("getResultSet") ? resultSet(resultSet, (Statement) proxy, collector) : result;
+            }
+            if (collector.current() == null) {
+                Object result = invoke(target, method, args);
+                return result instanceof ResultSet resultSet ? resultSet(resultSet, (Statement) proxy, collector) : result;
+            }
+            String sql = preparedSql != null ? preparedSql : args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            long start = System.nanoTime();
+            Object result = invoke(target, method, args);
+            collector.onStatement(sql, System.nanoTime() - start);
+            if (result instanceof ResultSet resultSet) {
+                return resultSet(resultSet, (Statement) proxy, collector);
+            }
+            if (result instanceof Integer updated && updated > 0) {
+                collector.onRows(updated);
+            } else if (result instanceof Long updated && updated > 0) {
+                collector.onRows(updated);
+            } else if (result instanceof int[] counts) {
+                long total = 0;
+                for (int count : counts) {
+                    total += Math.max(count, 0);
+                }
+                collector.onRows(total);
+            }
+            return result;
+        };
+        return (Statement) Proxy.newProxyInstance(JdbcProxies.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static ResultSet resultSet(ResultSet target, Statement statement, SqlStatsCollector collector) {
+        return (ResultSet) Proxy.newProxyInstance(JdbcProxies.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return objectMethod(proxy, target, method, args);
+                    }
+                    if (method.getName().equals("getStatement")) {
+                        return statement;
+                    }
+                    Object result = invoke(target, method, args);
+                    if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                        collector.onRows(1);
+                    }
+                    return result;
+                });
+    }
+
+    // Proxies are compared by identity, as the pools and Hibernate expect of JDBC objects.
+    private static Object objectMethod(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> invoke(target, method, args);
+        };
+    }
+
+    // Rethrows the driver's own exception rather than the reflective wrapper.
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
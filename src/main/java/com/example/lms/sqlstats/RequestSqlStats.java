@@ -0,0 +1,25 @@
+package com.example.lms.sqlstats;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC work done on behalf of one HTTP request. Only ever touched by the request's own thread.
+ */
+final class RequestSqlStats {
+
+    int statements;
+    long rows;
+    long jdbcNanos;
+
+    // Raw SQL -> executions; folded into statement shapes once, when the request ends.
+    final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    void statement(String sql, long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+        if (sql != null) {
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.lms.sqlstats;
+
+import com.example.lms.dto.diagnostics.SqlEndpointStatsDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the statements, rows and JDBC time of each HTTP request and attributes them to the controller method
+ * that served it. A request that runs the same statement shape (the SQL with literals and IN-list lengths
+ * folded away) more than {@code lms.sql-stats.repeat-threshold} times is logged as a likely N+1.
+ * Totals per endpoint are kept for {@code /diagnostics/sql} and published as {@code lms.sql.*} meters.
+ */
+@Component
+public class SqlStatsCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatsCollector.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_CACHED_SHAPES = 10_000;
+
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+
+    private final ThreadLocal<RequestSqlStats> current = new ThreadLocal<>();
+    private final Map<String, EndpointTotals> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, String> shapes = new ConcurrentHashMap<>();
+
+    public SqlStatsCollector(MeterRegistry meterRegistry,
+                             @Value("${lms.sql-stats.repeat-threshold:10}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    public void begin() {
+        current.set(new RequestSqlStats());
+    }
+
+    /**
+     * Stops tracking the current thread's request and records it under {@code endpoint}.
+     */
+    public void end(String endpoint) {
+        RequestSqlStats stats = current.get();
+        current.remove();
+        if (stats == null || (endpoint == null && stats.statements == 0)) {
+            return;
+        }
+        String name = endpoint != null ? endpoint : "unmapped";
+
+        // Fold raw SQL into shapes and find the most repeated one.
+        Map<String, Integer> executionsByShape = new HashMap<>();
+        stats.executionsBySql.forEach((sql, count) -> executionsByShape.merge(shape(sql), count, Integer::sum));
+        Map.Entry<String, Integer> mostRepeated = executionsByShape.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+        boolean repeated = mostRepeated != null && mostRepeated.getValue() > repeatThreshold;
+        if (repeated) {
+            log.warn("{} ran the same statement {} times in one request ({} statements in total), likely an N+1: {}",
+                    name, mostRepeated.getValue(), stats.statements, mostRepeated.getKey());
+        }
+
+        EndpointTotals totals = endpoints.computeIfAbsent(name, this::totals);
+        totals.requests.increment();
+        totals.statements.add(stats.statements);
+        totals.rows.add(stats.rows);
+        totals.jdbcNanos.add(stats.jdbcNanos);
+        totals.maxStatements.accumulate(stats.statements);
+        totals.statementsPerRequest.record(stats.statements);
+        totals.rowsPerRequest.record(stats.rows);
+        totals.jdbcTime.record(stats.jdbcNanos, TimeUnit.NANOSECONDS);
+        if (repeated) {
+            totals.repeatedWarnings.increment();
+            totals.repeatedCounter.increment();
+        }
+    }
+
+    public List<SqlEndpointStatsDTO> endpointStats() {
+        return endpoints.entrySet().stream()
+                .map(entry -> {
+                    EndpointTotals totals = entry.getValue();
+                    long requests = totals.requests.sum();
+                    long statements = totals.statements.sum();
+                    return new SqlEndpointStatsDTO(entry.getKey(), requests, statements, totals.rows.sum(),
+                            totals.jdbcNanos.sum() / 1_000_000.0, requests == 0 ? 0 : (double) statements / requests,
+                            totals.maxStatements.get(), totals.repeatedWarnings.sum());
+                })
+                .sorted(Comparator.comparing(SqlEndpointStatsDTO::getStatements).reversed())
+                .toList();
+    }
+
+    public void reset() {
+        endpoints.values().forEach(EndpointTotals::reset);
+    }
+
+    RequestSqlStats current() {
+        return current.get();
+    }
+
+    void onStatement(String sql, long nanos) {
+        RequestSqlStats stats = current.get();
+        if (stats != null) {
+            stats.statement(sql, nanos);
+        }
+    }
+
+    void onRows(long rows) {
+        RequestSqlStats stats = current.get();
+        if (stats != null) {
+            stats.rows += rows;
+        }
+    }
+
+    String shape(String sql) {
+        String shape = shapes.get(sql);
+        if (shape == null) {
+            shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+            shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+            shape = IN_LIST.matcher(shape).replaceAll("(?)");
+            shape = WHITESPACE.matcher(shape).replaceAll(" ").strip();
+            // Statements built with inlined values would grow this without bound.
+            if (shapes.size() < MAX_CACHED_SHAPES) {
+                shapes.put(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    private EndpointTotals totals(String endpoint) {
+        return new EndpointTotals(
+                DistributionSummary.builder("lms.sql.statements").description("JDBC statements per request")
+                        .tag("endpoint", endpoint).register(meterRegistry),
+                DistributionSummary.builder("lms.sql.rows").description("Rows read or written per request")
+                        .tag("endpoint", endpoint).register(meterRegistry),
+                Timer.builder("lms.sql.time").description("Time spent executing JDBC statements per request")
+                        .tag("endpoint", endpoint).register(meterRegistry),
+                Counter.builder("lms.sql.repeated.statements").description("Requests that repeated one statement shape past the threshold")
+                        .tag("endpoint", endpoint).register(meterRegistry));
+    }
+
+    private static final class EndpointTotals {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder jdbcNanos = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder repeatedWarnings = new LongAdder();
+        private final DistributionSummary statementsPerRequest;
+        private final DistributionSummary rowsPerRequest;
+        private final Timer jdbcTime;
+        private final Counter repeatedCounter;
+
+        private EndpointTotals(DistributionSummary statementsPerRequest, DistributionSummary rowsPerRequest, Timer jdbcTime, Counter repeatedCounter) {
+            this.statementsPerRequest = statementsPerRequest;
+            this.rowsPerRequest = rowsPerRequest;
+            this.jdbcTime = jdbcTime;
+            this.repeatedCounter = repeatedCounter;
+        }
+
+        // Meters are cumulative by design; only the diagnostics view is reset.
+        private void reset() {
+            requests.reset();
+            statements.reset();
+            rows.reset();
+            jdbcNanos.reset();
+            maxStatements.reset();
+            repeatedWarnings.reset();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.lms.sqlstats;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Wraps the application's {@link DataSource} so every connection reports to the {@link SqlStatsCollector}.
+ * The wrapper unwraps to the pool, so pool metrics and health checks still see the real data source.
+ */
+@Component
+public class SqlStatsDataSourceWrapper implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlStatsCollector> collector;
+    private final boolean enabled;
+
+    public SqlStatsDataSourceWrapper(ObjectProvider<SqlStatsCollector> collector, @Value("${lms.sql-stats.enabled:true}") boolean enabled) {
+        this.collector = collector;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+            return new InstrumentedDataSource(dataSource, collector);
+        }
+        return bean;
+    }
+
+    static final class InstrumentedDataSource extends DelegatingDataSource {
+
+        private final ObjectProvider<SqlStatsCollector> collectorProvider;
+        private volatile SqlStatsCollector collector;
+
+        private InstrumentedDataSource(DataSource target, ObjectProvider<SqlStatsCollector> collectorProvider) {
+            super(target);
+            this.collectorProvider = collectorProvider;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return JdbcProxies.connection(super.getConnection(), collector());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return JdbcProxies.connection(super.getConnection(username, password), collector());
+        }
+
+        // Resolved on first use: the collector needs the meter registry, which must not be created this early.
+        private SqlStatsCollector collector() {
+            SqlStatsCollector resolved = collector;
+            if (resolved == null) {
+                collector = resolved = collectorProvider.getObject();
+            }
+            return resolved;
+        }
+    }
+}
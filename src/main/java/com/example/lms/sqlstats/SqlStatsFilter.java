@@ -0,0 +1,56 @@
+package com.example.lms.sqlstats;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Brackets every request with {@link SqlStatsCollector#begin()} and {@link SqlStatsCollector#end(String)}, naming it
+ * after the controller method that handled it. JDBC work on other threads (streamed exports, background jobs)
+ * is not attributed to the request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    private final SqlStatsCollector collector;
+    private final boolean enabled;
+
+    public SqlStatsFilter(SqlStatsCollector collector, @Value("${lms.sql-stats.enabled:true}") boolean enabled) {
+        this.collector = collector;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        collector.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            collector.end(endpoint(request));
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            return handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+        }
+        return null;
+    }
+}
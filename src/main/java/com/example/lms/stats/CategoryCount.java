@@ -0,0 +1,7 @@
+package com.example.lms.stats;
+
+import com.example.lms.model.enums.Category;
+
+// Books per category and how many of them are on the shelf.
+public record CategoryCount(Category category, Long total, Long available) {
+}
@@ -0,0 +1,233 @@
+package com.example.lms.stats;
+
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.dto.stats.CategoryStatsDTO;
+import com.example.lms.dto.stats.CirculationStatsDTO;
+import com.example.lms.dto.stats.DailyLoansDTO;
+import com.example.lms.event.BookAvailabilityChangedEvent;
+import com.example.lms.event.BookDeletedEvent;
+import com.example.lms.event.BookSavedEvent;
+import com.example.lms.event.BooksClearedEvent;
+import com.example.lms.event.BorrowersClearedEvent;
+import com.example.lms.event.BorrowingsClearedEvent;
+import com.example.lms.model.enums.Category;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circulation counters kept up to date from committed book and loan events: books and available books
+ * per category, and loans started per day and category over a sliding window. Reading them costs the
+ * same however large the tables are. Changes the events cannot attribute (a loan deleted on its own,
+ * loans cascading with a book) are picked up by the periodic reconciliation against the database.
+ */
+@Component
+public class CirculationStats {
+
+    private static final Logger log = LoggerFactory.getLogger(CirculationStats.class);
+
+    private final BookRepository bookRepository;
+    private final BorrowingTransactionRepository borrowingTransactionRepository;
+    private final int windowDays;
+
+    private final Map<Category, LongAdder> totals = counters();
+    private final Map<Category, LongAdder> available = counters();
+    private final Map<LocalDate, Map<Category, LongAdder>> loansByDay = new ConcurrentHashMap<>();
+
+    private volatile Instant reconciledAt;
+    private volatile long lastReconcileDrift;
+
+    public CirculationStats(BookRepository bookRepository,
+                            BorrowingTransactionRepository borrowingTransactionRepository,
+                            @Value("${lms.stats.window-days:30}") int windowDays) {
+        this.bookRepository = bookRepository;
+        this.borrowingTransactionRepository = borrowingTransactionRepository;
+        this.windowDays = windowDays;
+    }
+
+    public CirculationStatsDTO snapshot() {
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = today.minusDays(windowDays - 1L);
+
+        Map<Category, Long> loansInWindow = new EnumMap<>(Category.class);
+        List<DailyLoansDTO> loansPerDay = new ArrayList<>(windowDays);
+        for (LocalDate day = firstDay; !day.isAfter(today); day = day.plusDays(1)) {
+            Map<Category, LongAdder> counts = loansByDay.get(day);
+            Map<Category, Long> byCategory = new EnumMap<>(Category.class);
+            long dayTotal = 0;
+            if (counts != null) {
+                for (Map.Entry<Category, LongAdder> entry : counts.entrySet()) {
+                    long loans = entry.getValue().sum();
+                    if (loans != 0) {
+                        byCategory.put(entry.getKey(), loans);
+                        loansInWindow.merge(entry.getKey(), loans, Long::sum);
+                        dayTotal += loans;
+                    }
+                }
+            }
+            loansPerDay.add(new DailyLoansDTO(day, dayTotal, byCategory));
+        }
+
+        List<CategoryStatsDTO> categories = new ArrayList<>();
+        long totalBooks = 0;
+        long availableBooks = 0;
+        for (Category category : Category.values()) {
+            long total = totals.get(category).sum();
+            long onShelf = available.get(category).sum();
+            totalBooks += total;
+            availableBooks += onShelf;
+            categories.add(new CategoryStatsDTO(category, total, onShelf, total - onShelf, ratio(onShelf, total),
+                    loansInWindow.getOrDefault(category, 0L)));
+        }
+        return new CirculationStatsDTO(totalBooks, availableBooks, totalBooks - availableBooks, ratio(availableBooks, totalBooks),
+                windowDays, categories, loansPerDay, reconciledAt, lastReconcileDrift);
+    }
+
+    /**
+     * Corrects every counter to what the database says. Each counter is read before the queries and then moved by
+     * the gap between that reading and the query result, so events applied after the reading are kept rather than
+     * netted out. The result is exact when nothing commits while the queries run; an event committed during them
+     * and applied after the reading is counted twice, until the next reconciliation corrects it. Runs once at
+     * startup and then every reconcile interval.
+     */
+    @Scheduled(fixedDelayString = "${lms.stats.reconcile-interval:15m}")
+    public void reconcile() {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = today.minusDays(windowDays - 1L);
+
+        loansByDay.keySet().removeIf(day -> day.isBefore(firstDay));
+        Map<LongAdder, Long> observed = new HashMap<>();
+        for (Category category : Category.values()) {
+            observe(observed, totals.get(category));
+            observe(observed, available.get(category));
+        }
+        for (LocalDate day = firstDay; !day.isAfter(today); day = day.plusDays(1)) {
+            loansOn(day).values().forEach(counter -> observe(observed, counter));
+        }
+
+        Map<Category, Long> expectedTotals = new EnumMap<>(Category.class);
+        Map<Category, Long> expectedAvailable = new EnumMap<>(Category.class);
+        for (CategoryCount count : bookRepository.countByCategory()) {
+            expectedTotals.put(count.category(), count.total());
+            expectedAvailable.put(count.category(), count.available());
+        }
+        Map<LocalDate, Map<Category, Long>> expectedLoans = new HashMap<>();
+        for (DailyLoanCount count : borrowingTransactionRepository.countLoansSince(firstDay)) {
+            expectedLoans.computeIfAbsent(count.day(), day -> new EnumMap<>(Category.class)).put(count.category(), count.loans());
+        }
+
+        long drift = 0;
+        for (Category category : Category.values()) {
+            drift += correct(observed, totals.get(category), expectedTotals.getOrDefault(category, 0L));
+            drift += correct(observed, available.get(category), expectedAvailable.getOrDefault(category, 0L));
+        }
+        for (LocalDate day = firstDay; !day.isAfter(today); day = day.plusDays(1)) {
+            Map<Category, Long> expected = expectedLoans.getOrDefault(day, Map.of());
+            Map<Category, LongAdder> counts = loansOn(day);
+            for (Category category : Category.values()) {
+                drift += correct(observed, counts.get(category), expected.getOrDefault(category, 0L));
+            }
+        }
+
+        lastReconcileDrift = drift;
+        reconciledAt = Instant.now();
+        log.debug("Circulation stats reconciled in {} ms (drift {})", (System.nanoTime() - start) / 1_000_000, drift);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        if (event.previous() != null) {
+            count(event.previous(), -1);
+        }
+        count(event.current(), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookDeleted(BookDeletedEvent event) {
+        count(event.book(), -1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksCleared(BooksClearedEvent event) {
+        totals.values().forEach(LongAdder::reset);
+        available.values().forEach(LongAdder::reset);
+        loansByDay.clear();
+    }
+
+    // A checkout or return; checkouts also count as a loan for today.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(BookAvailabilityChangedEvent event) {
+        if (event.category() == null) {
+            return;
+        }
+        available.get(event.category()).add(event.available() ? 1 : -1);
+        if (!event.available()) {
+            loansOn(LocalDate.now()).get(event.category()).increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowingsCleared(BorrowingsClearedEvent event) {
+        loansByDay.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowersCleared(BorrowersClearedEvent event) {
+        loansByDay.clear();
+    }
+
+    private void count(BookResponseDTO book, int delta) {
+        if (book.getCategory() == null) {
+            return;
+        }
+        totals.get(book.getCategory()).add(delta);
+        if (book.isAvailable()) {
+            available.get(book.getCategory()).add(delta);
+        }
+    }
+
+    private Map<Category, LongAdder> loansOn(LocalDate day) {
+        return loansByDay.computeIfAbsent(day, key -> counters());
+    }
+
+    // Keyed by identity: LongAdder does not override equals.
+    private static void observe(Map<LongAdder, Long> observed, LongAdder counter) {
+        observed.put(counter, counter.sum());
+    }
+
+    // A counter created since the readings (its map was cleared meanwhile) started from zero.
+    private static long correct(Map<LongAdder, Long> observed, LongAdder counter, long expected) {
+        long difference = expected - observed.getOrDefault(counter, 0L);
+        counter.add(difference);
+        return Math.abs(difference);
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0.0 : (double) part / whole;
+    }
+
+    // Keys are fixed up front, so the maps are only ever read after construction.
+    private static Map<Category, LongAdder> counters() {
+        Map<Category, LongAdder> counters = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            counters.put(category, new LongAdder());
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.lms.stats;
+
+import com.example.lms.model.enums.Category;
+
+import java.time.LocalDate;
+
+// Loans started on one day for one category.
+public record DailyLoanCount(LocalDate day, Category category, Long loans) {
+}
@@ -0,0 +1,65 @@
+package com.example.lms.util;
+
+import com.example.lms.dto.author.AuthorResponseDTO;
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.dto.borrower.BorrowerResponseDTO;
+import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
+import com.example.lms.model.Author;
+import com.example.lms.model.Book;
+import com.example.lms.model.Borrower;
+import com.example.lms.model.BorrowingTransaction;
+
+import java.util.List;
+
+/**
+ * Entity to response DTO mapping, written out as plain getter and constructor calls: no reflection and no
+ * intermediate objects. Associations are read through their id only, which Hibernate proxies answer
+ * without loading the associated row. A missing association maps to a null id, as the reflective mapper did;
+ * a loan's book column is NOT NULL, but a transient loan being built up may not have one yet.
+ */
+public final class ResponseMappers {
+
+    private ResponseMappers() {
+    }
+
+    public static BookResponseDTO toResponse(Book book) {
+        return new BookResponseDTO(
+                book.getId(),
+                book.getTitle(),
+                book.getIsbn(),
+                book.getCategory(),
+                book.getAuthor() != null ? book.getAuthor().getId() : null,
+                book.isAvailable()
+        );
+    }
+
+    public static BorrowerResponseDTO toResponse(Borrower borrower) {
+        return new BorrowerResponseDTO(
+                borrower.getId(),
+                borrower.getName(),
+                borrower.getEmail(),
+                borrower.getPhoneNumber()
+        );
+    }
+
+    public static BorrowingTransactionResponseDTO toResponse(BorrowingTransaction transaction) {
+        return new BorrowingTransactionResponseDTO(
+                transaction.getId(),
+                transaction.getBook() != null ? transaction.getBook().getId() : null,
+                transaction.getBorrower() != null ? transaction.getBorrower().getId() : null,
+                transaction.getBorrowDate(),
+                transaction.getReturnDate(),
+                transaction.getStatus()
+        );
+    }
+
+    // The ISBNs come from a separate query, so callers pass them in.
+    public static AuthorResponseDTO toResponse(Author author, List<String> bookIsbns) {
+        return new AuthorResponseDTO(
+                author.getId(),
+                author.getName(),
+                author.getBiography(),
+                bookIsbns
+        );
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.lms.archive;
+
+import com.example.lms.dto.borrowings.ArchiveRunDTO;
+import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
+import com.example.lms.dto.borrowings.BorrowingTransactionUpdateDTO;
+import com.example.lms.exception.EntityNotFoundException;
+import com.example.lms.model.Author;
+import com.example.lms.model.Book;
+import com.example.lms.model.Borrower;
+import com.example.lms.model.BorrowingTransaction;
+import com.example.lms.model.enums.Category;
+import com.example.lms.model.enums.TransactionStatus;
+import com.example.lms.repository.AuthorRepository;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowerRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import com.example.lms.service.BorrowingTransactionService;
+import com.example.lms.service.ExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class BorrowingArchiveTests {
+
+	@Autowired
+	private BorrowingArchiver borrowingArchiver;
+
+	@Autowired
+	private BorrowingArchive borrowingArchive;
+
+	@Autowired
+	private BorrowingTransactionService borrowingTransactionService;
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowerRepository borrowerRepository;
+
+	@Autowired
+	private BorrowingTransactionRepository borrowingTransactionRepository;
+
+	@BeforeEach
+	void clean() {
+		borrowingArchive.deleteAll();
+		borrowingTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		borrowerRepository.deleteAllInBatch();
+		authorRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void oldReturnedLoansMoveToTheArchiveAndStayInHistory() {
+		Author author = authorRepository.save(new Author("Archive Author", "Biography"));
+		Book book = bookRepository.save(new Book("Archived Title", "isbn-archive", Category.HISTORY, author, false));
+		Borrower borrower = borrowerRepository.save(new Borrower("Reader", "reader@example.com", "555-archive"));
+		LocalDate longAgo = LocalDate.now().minusYears(1);
+		BorrowingTransaction oldReturned = borrowingTransactionRepository.save(
+				new BorrowingTransaction(book, borrower, longAgo, longAgo.plusMonths(1), TransactionStatus.RETURNED));
+		BorrowingTransaction oldOpen = borrowingTransactionRepository.save(
+				new BorrowingTransaction(book, borrower, longAgo, longAgo.plusMonths(1), TransactionStatus.BORROWED));
+		BorrowingTransaction recentReturned = borrowingTransactionRepository.save(
+				new BorrowingTransaction(book, borrower, LocalDate.now().minusDays(3), LocalDate.now(), TransactionStatus.RETURNED));
+
+		ArchiveRunDTO run = borrowingArchiver.run();
+
+		assertThat(run.getArchived()).isEqualTo(1);
+		assertThat(borrowingArchive.count()).isEqualTo(1);
+		assertThat(borrowingTransactionRepository.findAll()).extracting(BorrowingTransaction::getId)
+				.containsExactlyInAnyOrder(oldOpen.getId(), recentReturned.getId());
+
+		List<BorrowingTransactionResponseDTO> history = borrowingTransactionService.getBookHistory(book.getId(), 10);
+		assertThat(history).extracting(BorrowingTransactionResponseDTO::getId)
+				.containsExactlyInAnyOrder(oldReturned.getId(), oldOpen.getId(), recentReturned.getId());
+		assertThat(history.get(0).getId()).isEqualTo(recentReturned.getId());
+		assertThat(borrowingTransactionService.getBorrowerHistory(borrower.getId(), 10)).hasSize(3);
+		assertThat(borrowingTransactionService.getBorrowingById(oldReturned.getId()).getStatus()).isEqualTo(TransactionStatus.RETURNED);
+
+		assertThat(borrowingArchiver.run().getArchived()).isZero();
+	}
+
+	@Test
+	void archivedLoansStayInTheListAndTheExport() throws Exception {
+		Author author = authorRepository.save(new Author("Export Author", "Biography"));
+		Book book = bookRepository.save(new Book("Exported Title", "isbn-archive-export", Category.HISTORY, author, true));
+		Borrower borrower = borrowerRepository.save(new Borrower("Exporter", "exporter@example.com", "555-export"));
+		LocalDate longAgo = LocalDate.now().minusYears(1);
+		BorrowingTransaction archived = borrowingTransactionRepository.save(
+				new BorrowingTransaction(book, borrower, longAgo, longAgo.plusMonths(1), TransactionStatus.RETURNED));
+		BorrowingTransaction hot = borrowingTransactionRepository.save(
+				new BorrowingTransaction(book, borrower, LocalDate.now().minusDays(3), LocalDate.now(), TransactionStatus.RETURNED));
+
+		assertThat(borrowingArchiver.run().getArchived()).isEqualTo(1);
+
+		assertThat(borrowingTransactionService.getAllBorrowings()).extracting(BorrowingTransactionResponseDTO::getId)
+				.containsExactlyInAnyOrder(archived.getId(), hot.getId());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.exportBorrowings(out, ExportService.Format.CSV, false);
+		String csv = out.toString(StandardCharsets.UTF_8);
+		assertThat(csv.lines()).hasSize(3);
+		assertThat(csv).contains(archived.getId().toString(), hot.getId().toString());
+	}
+
+	@Test
+	void archivedLoansCanBeDeletedButNotUpdated() {
+		Author author = authorRepository.save(new Author("Read-only Author", "Biography"));
+		Book book = bookRepository.save(new Book("Read-only Title", "isbn-archive-readonly", Category.HISTORY, author, true));
+		Borrower borrower = borrowerRepository.save(new Borrower("Keeper", "keeper@example.com", "555-readonly"));
+		LocalDate longAgo = LocalDate.now().minusYears(1);
+		BorrowingTransaction archived = borrowingTransactionRepository.save(
+				new BorrowingTransaction(book, borrower, longAgo, longAgo.plusMonths(1), TransactionStatus.RETURNED));
+		assertThat(borrowingArchiver.run().getArchived()).isEqualTo(1);
+
+		BorrowingTransactionUpdateDTO update = new BorrowingTransactionUpdateDTO("keeper@example.com", longAgo,
+				longAgo.plusMonths(2), TransactionStatus.RETURNED);
+		assertThatThrownBy(() -> borrowingTransactionService.updateBorrowing(archived.getId(), update))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+		borrowingTransactionService.deleteBorrowingById(archived.getId());
+		assertThat(borrowingArchive.findById(archived.getId())).isEmpty();
+		assertThatThrownBy(() -> borrowingTransactionService.deleteBorrowingById(archived.getId()))
+				.isInstanceOf(EntityNotFoundException.class);
+	}
+
+	@Test
+	void aCandidateReopenedBeforeTheMoveStaysInTheHotTable() {
+		Author author = authorRepository.save(new Author("Reopen Author", "Biography"));
+		Book book = bookRepository.save(new Book("Reopened Title", "isbn-archive-reopen", Category.HISTORY, author, false));
+		Borrower borrower = borrowerRepository.save(new Borrower("Reopener", "reopener@example.com", "555-reopen"));
+		LocalDate longAgo = LocalDate.now().minusYears(1);
+		BorrowingTransaction reopened = borrowingTransactionRepository.save(
+				new BorrowingTransaction(book, borrower, longAgo, longAgo.plusMonths(1), TransactionStatus.RETURNED));
+		BorrowingTransaction returned = borrowingTransactionRepository.save(
+				new BorrowingTransaction(book, borrower, longAgo, longAgo.plusMonths(1), TransactionStatus.RETURNED));
+		List<UUID> ids = borrowingArchive.findCandidates(LocalDate.now(), 10).stream()
+				.map(BorrowingArchive.ArchiveCandidate::id).toList();
+
+		reopened.setStatus(TransactionStatus.BORROWED);
+		borrowingTransactionRepository.save(reopened);
+		Integer moved = transactionTemplate.execute(status -> borrowingArchive.move(ids));
+
+		assertThat(moved).isEqualTo(1);
+		assertThat(borrowingArchive.findById(returned.getId())).isPresent();
+		assertThat(borrowingArchive.findById(reopened.getId())).isEmpty();
+		assertThat(borrowingTransactionRepository.findAll()).extracting(BorrowingTransaction::getId)
+				.containsExactly(reopened.getId());
+	}
+}
@@ -0,0 +1,129 @@
+package com.example.lms.availability;
+
+import com.example.lms.event.BookAvailabilityChangedEvent;
+import com.example.lms.model.enums.Category;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityBroadcasterTests {
+
+	// Sends run on the calling thread unless a test needs them concurrent.
+	private AvailabilityBroadcaster broadcaster = broadcaster(Runnable::run);
+
+	@Test
+	void changesWithinAWindowAreCoalescedPerBook() {
+		UUID flipped = UUID.randomUUID();
+		UUID borrowed = UUID.randomUUID();
+		CapturingEmitter everything = subscribe(Set.of());
+		CapturingEmitter onlyFlipped = subscribe(Set.of(flipped));
+
+		broadcaster.onAvailabilityChanged(new BookAvailabilityChangedEvent(flipped, Category.FICTION, false));
+		broadcaster.onAvailabilityChanged(new BookAvailabilityChangedEvent(borrowed, Category.FICTION, false));
+		broadcaster.onAvailabilityChanged(new BookAvailabilityChangedEvent(flipped, Category.FICTION, true));
+		broadcaster.flush();
+		broadcaster.flush();
+
+		assertThat(everything.payloads).hasSize(1);
+		assertThat(everything.payloads.get(0))
+				.contains("{\"bookId\":\"" + flipped + "\",\"available\":true}")
+				.contains("{\"bookId\":\"" + borrowed + "\",\"available\":false}");
+		assertThat(onlyFlipped.payloads).containsExactly("[{\"bookId\":\"" + flipped + "\",\"available\":true}]");
+	}
+
+	@Test
+	void failedSendsDropTheSubscriber() {
+		CapturingEmitter gone = subscribe(Set.of());
+		gone.failing = true;
+
+		broadcaster.onAvailabilityChanged(new BookAvailabilityChangedEvent(UUID.randomUUID(), Category.FICTION, false));
+		broadcaster.flush();
+
+		assertThat(broadcaster.subscriberCount()).isZero();
+	}
+
+	@Test
+	void aStuckSubscriberIsDroppedWithoutHoldingUpTheOthers() throws InterruptedException {
+		ExecutorService senders = Executors.newFixedThreadPool(2);
+		broadcaster = broadcaster(senders);
+		CountDownLatch release = new CountDownLatch(1);
+		CapturingEmitter stuck = subscribe(Set.of());
+		stuck.blockedOn = release;
+		CapturingEmitter healthy = subscribe(Set.of());
+
+		try {
+			// One write blocks, two more fill the stuck subscriber's queue and the fourth overflows it.
+			for (int i = 1; i <= 4; i++) {
+				broadcaster.onAvailabilityChanged(new BookAvailabilityChangedEvent(UUID.randomUUID(), Category.FICTION, false));
+				broadcaster.flush();
+				healthy.awaitPayloads(i);
+			}
+
+			assertThat(healthy.payloads).hasSize(4);
+			assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+		} finally {
+			release.countDown();
+			senders.shutdownNow();
+		}
+	}
+
+	private AvailabilityBroadcaster broadcaster(Executor senders) {
+		return new AvailabilityBroadcaster(new ObjectMapper(), Duration.ofSeconds(1), Duration.ofSeconds(30),
+				Duration.ofMinutes(1), 10, 2, Duration.ofSeconds(10), senders);
+	}
+
+	private CapturingEmitter subscribe(Set<UUID> bookIds) {
+		CapturingEmitter emitter = new CapturingEmitter();
+		broadcaster.register(emitter, bookIds);
+		return emitter;
+	}
+
+	private static class CapturingEmitter extends SseEmitter {
+
+		private final List<String> payloads = new CopyOnWriteArrayList<>();
+		private boolean failing;
+		private CountDownLatch blockedOn;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (failing) {
+				throw new IOException("Broken pipe");
+			}
+			if (blockedOn != null) {
+				try {
+					blockedOn.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+				if (MediaType.APPLICATION_JSON.equals(part.getMediaType())) {
+					payloads.add(part.getData().toString());
+				}
+			}
+		}
+
+		private void awaitPayloads(int count) throws InterruptedException {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (payloads.size() < count && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.example.lms.bulkhead;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadFilterTests {
+
+	private final BulkheadFilter filter = new BulkheadFilter(true, List.of("/books/search"), 4, 1, Duration.ofMillis(50), "/actuator");
+
+	@Test
+	void fullSlowBulkheadRejectsSlowRequestsOnly() throws Exception {
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<MockHttpServletResponse> held = CompletableFuture.supplyAsync(() -> {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			try {
+				filter.doFilter(new MockHttpServletRequest("GET", "/books/search"), response, (request, ignored) -> {
+					entered.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+			return response;
+		});
+		assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		MockHttpServletResponse slow = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/books/search"), slow, (request, response) -> {});
+		assertThat(slow.getStatus()).isEqualTo(503);
+		assertThat(slow.getHeader("Retry-After")).isEqualTo("1");
+
+		MockHttpServletResponse quick = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/books/123"), quick, (request, response) -> {});
+		assertThat(quick.getStatus()).isEqualTo(200);
+
+		release.countDown();
+		assertThat(held.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+
+		MockHttpServletResponse after = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/books/search"), after, (request, response) -> {});
+		assertThat(after.getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void actuatorRequestsBypassAFullBulkhead() throws Exception {
+		BulkheadFilter single = new BulkheadFilter(true, List.of("/books/search"), 1, 1, Duration.ofMillis(50), "/actuator");
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> held = CompletableFuture.runAsync(() -> {
+			try {
+				single.doFilter(new MockHttpServletRequest("GET", "/books/123"), new MockHttpServletResponse(), (request, ignored) -> {
+					entered.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		MockHttpServletResponse busy = new MockHttpServletResponse();
+		single.doFilter(new MockHttpServletRequest("GET", "/books/456"), busy, (request, response) -> {});
+		assertThat(busy.getStatus()).isEqualTo(503);
+
+		MockHttpServletResponse health = new MockHttpServletResponse();
+		single.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), health, (request, response) -> {});
+		assertThat(health.getStatus()).isEqualTo(200);
+
+		release.countDown();
+		held.get(5, TimeUnit.SECONDS);
+	}
+}
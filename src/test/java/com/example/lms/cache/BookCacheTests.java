@@ -0,0 +1,130 @@
+package com.example.lms.cache;
+
+import com.example.lms.event.BookAvailabilityChangedEvent;
+import com.example.lms.event.BookDeletedEvent;
+import com.example.lms.model.enums.Category;
+import com.example.lms.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookCacheTests {
+
+	private static final int THREADS = 8;
+
+	private final BookRepository bookRepository = mock(BookRepository.class);
+	private final BookCache cache = new BookCache(bookRepository, 1000, Duration.ofMinutes(10));
+
+	private final BookSnapshot dune = new BookSnapshot(UUID.randomUUID(), "Dune", "978-0441013593", Category.FICTION, null, true);
+
+	@Test
+	void concurrentMissesOnOneIdRunOneQuery() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(bookRepository.findSnapshotById(dune.id())).thenAnswer(invocation -> {
+			loading.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return Optional.of(dune);
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Optional<BookSnapshot>>> lookups = new ArrayList<>();
+			lookups.add(executor.submit(() -> cache.findById(dune.id())));
+			assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+			for (int i = 1; i < THREADS; i++) {
+				lookups.add(executor.submit(() -> cache.findById(dune.id())));
+			}
+			release.countDown();
+
+			for (Future<Optional<BookSnapshot>> lookup : lookups) {
+				assertThat(lookup.get(5, TimeUnit.SECONDS)).contains(dune);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		verify(bookRepository, times(1)).findSnapshotById(dune.id());
+	}
+
+	@Test
+	void anInvalidationDuringALoadLeavesNoStaleEntry() throws Exception {
+		BookSnapshot onLoan = new BookSnapshot(dune.id(), dune.title(), dune.isbn(), dune.category(), null, false);
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(bookRepository.findSnapshotById(dune.id()))
+				.thenAnswer(invocation -> {
+					loading.countDown();
+					release.await(5, TimeUnit.SECONDS);
+					return Optional.of(dune);
+				})
+				.thenReturn(Optional.of(onLoan));
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Optional<BookSnapshot>> stale = executor.submit(() -> cache.findById(dune.id()));
+			assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+			// The checkout commits while the old row is still being read.
+			cache.onAvailabilityChanged(new BookAvailabilityChangedEvent(dune.id(), Category.FICTION, false));
+			release.countDown();
+			assertThat(stale.get(5, TimeUnit.SECONDS)).contains(dune);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(cache.findById(dune.id())).contains(onLoan);
+		assertThat(cache.findById(dune.id())).contains(onLoan);
+		verify(bookRepository, times(2)).findSnapshotById(dune.id());
+	}
+
+	@Test
+	void aMappingLeftByADeletedBookFallsThroughToTheDatabase() {
+		when(bookRepository.findIdByIsbn(dune.isbn())).thenReturn(Optional.of(dune.id()));
+		when(bookRepository.findSnapshotById(dune.id())).thenReturn(Optional.of(dune));
+		assertThat(cache.findByIsbn(dune.isbn())).contains(dune);
+
+		// The book is deleted and the ISBN reused, but only the snapshot is evicted, so the mapping is stale.
+		BookSnapshot reissued = new BookSnapshot(UUID.randomUUID(), "Dune (Reissue)", dune.isbn(), Category.FICTION, null, true);
+		when(bookRepository.findSnapshotById(dune.id())).thenReturn(Optional.empty());
+		when(bookRepository.findSnapshotByIsbn(dune.isbn())).thenReturn(Optional.of(reissued));
+		when(bookRepository.findIdByIsbn(dune.isbn())).thenReturn(Optional.of(reissued.id()));
+		when(bookRepository.findSnapshotById(reissued.id())).thenReturn(Optional.of(reissued));
+		cache.evict(dune.id());
+
+		assertThat(cache.findByIsbn(dune.isbn())).contains(reissued);
+		verify(bookRepository).findSnapshotByIsbn(dune.isbn());
+
+		// The stale mapping was dropped, so the next lookup resolves the new id and is served from the cache.
+		assertThat(cache.findByIsbn(dune.isbn())).contains(reissued);
+		assertThat(cache.findByIsbn(dune.isbn())).contains(reissued);
+		verify(bookRepository, times(1)).findSnapshotById(reissued.id());
+	}
+
+	@Test
+	void aDeleteEvictsTheSnapshotAndTheMapping() {
+		when(bookRepository.findIdByIsbn(dune.isbn())).thenReturn(Optional.of(dune.id()));
+		when(bookRepository.findSnapshotById(dune.id())).thenReturn(Optional.of(dune));
+		assertThat(cache.findByIsbn(dune.isbn())).contains(dune);
+
+		when(bookRepository.findIdByIsbn(dune.isbn())).thenReturn(Optional.empty());
+		cache.onBookDeleted(new BookDeletedEvent(dune.toResponse()));
+
+		assertThat(cache.findByIsbn(dune.isbn())).isEmpty();
+		when(bookRepository.findSnapshotById(dune.id())).thenReturn(Optional.empty());
+		assertThat(cache.findById(dune.id())).isEmpty();
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.lms.contoller;
+
+import com.example.lms.event.AuthorRenamedEvent;
+import com.example.lms.event.BookAvailabilityChangedEvent;
+import com.example.lms.event.BooksClearedEvent;
+import com.example.lms.eventlog.CirculationEventLog;
+import com.example.lms.model.enums.Category;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class EventLogControllerTests {
+
+	@TempDir
+	Path directory;
+
+	private CirculationEventLog eventLog;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		eventLog = new CirculationEventLog(true, directory, DataSize.ofKilobytes(64), Duration.ofSeconds(1));
+		eventLog.open();
+		mockMvc = MockMvcBuilders.standaloneSetup(new EventLogController(eventLog)).build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		eventLog.close();
+	}
+
+	@Test
+	void offsetsThatAreNotRecordBoundariesAreRejected() throws Exception {
+		eventLog.onBooksCleared(new BooksClearedEvent());
+
+		mockMvc.perform(get("/event-log").param("from", "0"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.events.length()").value(1));
+		mockMvc.perform(get("/event-log").param("from", "1"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/event-log").param("from", "-1"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/event-log").param("from", Long.toString(eventLog.nextOffset() + 1)))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void bookEventsShowTheirRecordAndOtherEventsTheirText() throws Exception {
+		UUID bookId = UUID.randomUUID();
+		UUID authorId = UUID.randomUUID();
+		eventLog.onAvailabilityChanged(new BookAvailabilityChangedEvent(bookId, Category.SCIENCE, false));
+		eventLog.onAuthorRenamed(new AuthorRenamedEvent(authorId, "F. Herbert"));
+
+		mockMvc.perform(get("/event-log"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.events[0].type").value("AVAILABILITY_CHANGED"))
+				.andExpect(jsonPath("$.events[0].book.category").value("SCIENCE"))
+				.andExpect(jsonPath("$.events[0].book.available").value(false))
+				.andExpect(jsonPath("$.events[0].detail").doesNotExist())
+				.andExpect(jsonPath("$.events[1].detail").value("F. Herbert"))
+				.andExpect(jsonPath("$.events[1].book").doesNotExist());
+	}
+}
@@ -0,0 +1,149 @@
+package com.example.lms.contoller;
+
+import com.example.lms.model.Author;
+import com.example.lms.model.Book;
+import com.example.lms.model.Borrower;
+import com.example.lms.model.BorrowingTransaction;
+import com.example.lms.model.enums.Category;
+import com.example.lms.model.enums.TransactionStatus;
+import com.example.lms.repository.AuthorRepository;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowerRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import com.example.lms.sqlstats.SqlStatsCollector;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ListEndpointStatementCountTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowerRepository borrowerRepository;
+
+	@Autowired
+	private BorrowingTransactionRepository borrowingTransactionRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private SqlStatsCollector sqlStatsCollector;
+
+	private int seeded;
+
+	@BeforeEach
+	void clean() {
+		borrowingTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		borrowerRepository.deleteAllInBatch();
+		authorRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void bookListDoesNotGrowWithRows() throws Exception {
+		seed(3);
+		long few = statementsFor("/books/all");
+		seed(40);
+		long many = statementsFor("/books/all");
+
+		assertThat(few).isEqualTo(1);
+		assertThat(many).isEqualTo(few);
+	}
+
+	@Test
+	void borrowingListDoesNotGrowWithRows() throws Exception {
+		seed(3);
+		long few = jdbcStatementsFor("/borrowings/all", "BorrowingTransactionController.getAllBorrowings");
+		seed(40);
+		long many = jdbcStatementsFor("/borrowings/all", "BorrowingTransactionController.getAllBorrowings");
+
+		assertThat(few).isEqualTo(1);
+		assertThat(many).isEqualTo(few);
+	}
+
+	@Test
+	void authorListDoesNotGrowWithRows() throws Exception {
+		seed(3);
+		long few = statementsFor("/authors/all");
+		seed(40);
+		long many = statementsFor("/authors/all");
+
+		// One page of authors plus one query for all of their ISBNs.
+		assertThat(few).isEqualTo(2);
+		assertThat(many).isEqualTo(few);
+	}
+
+	@Test
+	void databaseSearchDoesNotGrowWithRows() {
+		seed(3);
+		long few = statementsFor(() -> bookRepository.search("Title", Category.HISTORY, "Author", Sort.by("title"), 100));
+		seed(40);
+		long many = statementsFor(() -> bookRepository.search("Title", Category.HISTORY, "Author", Sort.by("title"), 100));
+
+		assertThat(few).isEqualTo(1);
+		assertThat(many).isEqualTo(few);
+	}
+
+	// Every book gets its own author and every loan its own borrower, so per-row association loads would show up.
+	private void seed(int count) {
+		for (int i = 0; i < count; i++) {
+			int n = seeded++;
+			Author author = authorRepository.save(new Author("Author " + n, "Biography " + n));
+			Book book = bookRepository.save(new Book("Title " + n, "isbn-" + n, Category.HISTORY, author, false));
+			Borrower borrower = borrowerRepository.save(new Borrower("Borrower " + n, "borrower" + n + "@example.com", "555-" + n));
+			borrowingTransactionRepository.save(new BorrowingTransaction(book, borrower, LocalDate.now(), LocalDate.now().plusMonths(1), TransactionStatus.BORROWED));
+		}
+	}
+
+	private long statementsFor(String url) throws Exception {
+		Statistics statistics = statistics();
+		mockMvc.perform(get(url)).andExpect(status().isOk());
+		return statistics.getPrepareStatementCount();
+	}
+
+	// For endpoints that read through JdbcTemplate, which Hibernate's statistics do not see.
+	private long jdbcStatementsFor(String url, String endpoint) throws Exception {
+		sqlStatsCollector.reset();
+		mockMvc.perform(get(url)).andExpect(status().isOk());
+		return sqlStatsCollector.endpointStats().stream()
+				.filter(stats -> stats.getEndpoint().equals(endpoint))
+				.findFirst().orElseThrow()
+				.getStatements();
+	}
+
+	private long statementsFor(Runnable action) {
+		Statistics statistics = statistics();
+		action.run();
+		return statistics.getPrepareStatementCount();
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.lms.eventlog;
+
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.event.AuthorRenamedEvent;
+import com.example.lms.event.BookAvailabilityChangedEvent;
+import com.example.lms.event.BookDeletedEvent;
+import com.example.lms.event.BookSavedEvent;
+import com.example.lms.event.BooksClearedEvent;
+import com.example.lms.model.enums.Category;
+import com.example.lms.search.BookSearchIndex;
+import com.example.lms.search.BookSortOrder;
+import com.example.lms.search.IndexedBook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CirculationEventLogTests {
+
+	@TempDir
+	Path directory;
+
+	private CirculationEventLog eventLog;
+
+	@AfterEach
+	void tearDown() {
+		if (eventLog != null) {
+			eventLog.close();
+		}
+	}
+
+	@Test
+	void bookStateCanBeRebuiltByReplayingTheLog() {
+		eventLog = open();
+		UUID authorId = UUID.randomUUID();
+		BookResponseDTO dune = new BookResponseDTO(UUID.randomUUID(), "Dune", "978-0441013593", Category.FICTION, authorId, true);
+		BookResponseDTO cosmos = new BookResponseDTO(UUID.randomUUID(), "Cosmos", "978-0345539434", Category.SCIENCE, null, true);
+		BookResponseDTO retitled = new BookResponseDTO(dune.getId(), "Dune Messiah", dune.getIsbn(), Category.FICTION, authorId, true);
+
+		eventLog.onBookSaved(new BookSavedEvent(null, dune, "Frank Herbert"));
+		eventLog.onBookSaved(new BookSavedEvent(null, cosmos, null));
+		eventLog.onBookSaved(new BookSavedEvent(dune, retitled, "Frank Herbert"));
+		eventLog.onAvailabilityChanged(new BookAvailabilityChangedEvent(dune.getId(), Category.FICTION, false));
+		eventLog.onAuthorRenamed(new AuthorRenamedEvent(authorId, "F. Herbert"));
+		eventLog.onBookDeleted(new BookDeletedEvent(cosmos));
+
+		BookSearchIndex index = new BookSearchIndex(null);
+		eventLog.replay(0, event -> apply(index, event));
+
+		Comparator<IndexedBook> byTitle = BookSortOrder.comparator(BookSortOrder.resolve(Sort.by("title")));
+		assertThat(index.search(null, null, null, byTitle, 10))
+				.containsExactly(new BookResponseDTO(dune.getId(), "Dune Messiah", dune.getIsbn(), Category.FICTION, authorId, false));
+		assertThat(index.search(null, null, "f. herbert", byTitle, 10)).hasSize(1);
+
+		LoggedEvent availability = eventLog.read(0, 10).get(3);
+		assertThat(availability.type()).isEqualTo(CirculationEventType.AVAILABILITY_CHANGED);
+		assertThat(BookRecord.parse(availability.detail())).isEqualTo(BookRecord.availability(Category.FICTION, false));
+	}
+
+	@Test
+	void bookRecordsRoundTripThroughTheirBinaryEncoding() {
+		BookRecord full = new BookRecord("978-0441013593", "Dune — Ça", Category.FICTION, UUID.randomUUID(), "Frank Herbert", true);
+		BookRecord sparse = new BookRecord("978-0", "Untitled", Category.HISTORY, null, null, false);
+
+		assertThat(BookRecord.parse(full.encode())).isEqualTo(full);
+		assertThat(BookRecord.parse(sparse.encode())).isEqualTo(sparse);
+		assertThat(BookRecord.availability(Category.SCIENCE, true).encode()).hasSize(3);
+		assertThatThrownBy(() -> BookRecord.parse(Arrays.copyOf(full.encode(), 10)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void aFailingAppendIsCountedInsteadOfThrown() throws Exception {
+		eventLog = open();
+		eventLog.onBooksCleared(new BooksClearedEvent());
+
+		// A directory where the next segment file would go makes the roll fail.
+		for (int i = 0; i < 10_000 && eventLog.droppedEvents() == 0; i++) {
+			Path blocker = directory.resolve(String.format("%020d.seg", eventLog.nextOffset()));
+			Files.createDirectory(blocker);
+			eventLog.onBooksCleared(new BooksClearedEvent());
+			if (eventLog.droppedEvents() == 0) {
+				Files.delete(blocker);
+			}
+		}
+
+		assertThat(eventLog.droppedEvents()).isEqualTo(1);
+	}
+
+	private CirculationEventLog open() {
+		CirculationEventLog log = new CirculationEventLog(true, directory, DataSize.ofKilobytes(64), Duration.ofSeconds(1));
+		log.open();
+		return log;
+	}
+
+	private static void apply(BookSearchIndex index, LoggedEvent event) {
+		switch (event.type()) {
+			case BOOK_CREATED, BOOK_UPDATED -> {
+				BookRecord book = BookRecord.parse(event.detail());
+				index.put(new IndexedBook(event.bookId(), book.title(), book.isbn(), book.category(),
+						book.authorId(), book.authorName(), book.available()));
+			}
+			case BOOK_DELETED -> index.remove(event.bookId());
+			case AVAILABILITY_CHANGED -> {
+				BookRecord change = BookRecord.parse(event.detail());
+				index.onAvailabilityChanged(new BookAvailabilityChangedEvent(event.bookId(), change.category(), change.available()));
+			}
+			case AUTHOR_RENAMED -> index.onAuthorRenamed(new AuthorRenamedEvent(event.subjectId(), event.detailText()));
+			default -> {
+			}
+		}
+	}
+}
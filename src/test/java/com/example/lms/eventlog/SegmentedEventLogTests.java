@@ -0,0 +1,94 @@
+package com.example.lms.eventlog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentedEventLogTests {
+
+	private static final int SEGMENT_SIZE = 64 * 1024;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsBackAcrossSegmentsInAppendOrder() throws Exception {
+		List<UUID> loans = new ArrayList<>();
+		try (SegmentedEventLog log = new SegmentedEventLog(directory, SEGMENT_SIZE)) {
+			for (int i = 0; i < 3000; i++) {
+				UUID loan = UUID.randomUUID();
+				loans.add(loan);
+				log.append(CirculationEventType.CHECKOUT, i, loan, UUID.randomUUID(), null, bytes("2025-03-" + (i % 28 + 1)));
+			}
+			assertThat(log.segmentCount()).isGreaterThan(2);
+
+			List<LoggedEvent> firstPage = log.read(0, 10);
+			assertThat(firstPage).hasSize(10);
+			assertThat(firstPage.get(0).subjectId()).isEqualTo(loans.get(0));
+			assertThat(firstPage.get(0).borrowerId()).isNull();
+			assertThat(firstPage.get(0).detailText()).isEqualTo("2025-03-1");
+
+			List<UUID> replayed = new ArrayList<>();
+			long end = log.replay(firstPage.get(9).next(), 128, event -> replayed.add(event.subjectId()));
+			assertThat(replayed).containsExactlyElementsOf(loans.subList(10, loans.size()));
+			assertThat(end).isEqualTo(log.nextOffset());
+			assertThat(log.flush()).isEqualTo(log.nextOffset());
+		}
+	}
+
+	@Test
+	void reopeningDropsATornTailAndKeepsAppending() throws Exception {
+		long tornAt;
+		try (SegmentedEventLog log = new SegmentedEventLog(directory, SEGMENT_SIZE)) {
+			log.append(CirculationEventType.BOOK_CREATED, 1, UUID.randomUUID(), null, null, bytes("978-0"));
+			log.append(CirculationEventType.BOOK_UPDATED, 2, UUID.randomUUID(), null, null, bytes("978-1"));
+			tornAt = log.nextOffset();
+		}
+		// A record header whose body never made it to disk.
+		Path segment;
+		try (Stream<Path> files = Files.list(directory)) {
+			segment = files.findFirst().orElseThrow();
+		}
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			file.seek(tornAt);
+			file.writeInt(200);
+			file.writeByte(CirculationEventType.RETURN.ordinal());
+		}
+
+		try (SegmentedEventLog log = new SegmentedEventLog(directory, SEGMENT_SIZE)) {
+			assertThat(log.nextOffset()).isEqualTo(tornAt);
+			log.append(CirculationEventType.BOOK_DELETED, 3, UUID.randomUUID(), null, null, null);
+			assertThat(log.read(0, 10)).extracting(LoggedEvent::type)
+					.containsExactly(CirculationEventType.BOOK_CREATED, CirculationEventType.BOOK_UPDATED, CirculationEventType.BOOK_DELETED);
+		}
+	}
+
+	@Test
+	void readsRejectOffsetsThatAreNotRecordBoundaries() throws Exception {
+		try (SegmentedEventLog log = new SegmentedEventLog(directory, SEGMENT_SIZE)) {
+			long first = log.append(CirculationEventType.CHECKOUT, 1, UUID.randomUUID(), UUID.randomUUID(), null, bytes("2025-03-01"));
+			long second = log.append(CirculationEventType.RETURN, 2, UUID.randomUUID(), UUID.randomUUID(), null, null);
+
+			assertThat(log.read(second, 10)).extracting(LoggedEvent::type).containsExactly(CirculationEventType.RETURN);
+			assertThat(log.read(log.nextOffset(), 10)).isEmpty();
+			for (long offset : new long[]{first + 1, first + 4, second - 4, log.nextOffset() + 1}) {
+				assertThatThrownBy(() -> log.read(offset, 10)).isInstanceOf(IllegalArgumentException.class);
+			}
+		}
+	}
+
+	private static byte[] bytes(String detail) {
+		return detail.getBytes(StandardCharsets.UTF_8);
+	}
+}
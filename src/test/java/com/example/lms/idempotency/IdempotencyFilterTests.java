@@ -0,0 +1,175 @@
+package com.example.lms.idempotency;
+
+import com.example.lms.model.Author;
+import com.example.lms.model.Book;
+import com.example.lms.model.Borrower;
+import com.example.lms.model.enums.Category;
+import com.example.lms.repository.AuthorRepository;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowerRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyFilterTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowerRepository borrowerRepository;
+
+	@Autowired
+	private BorrowingTransactionRepository borrowingTransactionRepository;
+
+	private String isbn;
+
+	@BeforeEach
+	void clean() {
+		borrowingTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		borrowerRepository.deleteAllInBatch();
+		authorRepository.deleteAllInBatch();
+		Author author = authorRepository.save(new Author("Idempotent Author", "Biography"));
+		// Fresh ISBN per test: the book cache may still map an ISBN to a book deleted behind its back.
+		isbn = "978-" + UUID.randomUUID();
+		bookRepository.save(new Book("Retry Me", isbn, Category.FICTION, author, true));
+		borrowerRepository.save(new Borrower("Retrying Client", "idem@example.com", "555-idem"));
+	}
+
+	@Test
+	void concurrentAndLateRetriesOfACheckoutRunOnce() throws Exception {
+		int clients = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(clients);
+		List<Future<MockHttpServletResponse>> attempts = new ArrayList<>();
+		for (int i = 0; i < clients; i++) {
+			attempts.add(executor.submit(() -> {
+				start.await();
+				return checkout("checkout-1", isbn);
+			}));
+		}
+		start.countDown();
+		List<String> bodies = new ArrayList<>();
+		for (Future<MockHttpServletResponse> attempt : attempts) {
+			MockHttpServletResponse response = attempt.get();
+			assertThat(response.getStatus()).isEqualTo(201);
+			bodies.add(response.getContentAsString());
+		}
+		executor.shutdown();
+
+		MockHttpServletResponse late = checkout("checkout-1", isbn);
+		assertThat(late.getStatus()).isEqualTo(201);
+		assertThat(late.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+		assertThat(bodies).containsOnly(late.getContentAsString());
+		assertThat(borrowingTransactionRepository.count()).isEqualTo(1);
+	}
+
+	@Test
+	void reusingAKeyWithAnotherBodyIsRejected() throws Exception {
+		assertThat(checkout("checkout-2", isbn).getStatus()).isEqualTo(201);
+
+		assertThat(checkout("checkout-2", "978-other").getStatus()).isEqualTo(422);
+	}
+
+	@Test
+	void theBodyCanBeReadWithAReadListenerAndStoredResponsesAreWeighedByTheirBody() throws Exception {
+		IdempotencyFilter filter = new IdempotencyFilter(Set.of("/authors/new"), DataSize.ofMegabytes(1),
+				Duration.ofMinutes(1), Duration.ofSeconds(5));
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/authors/new");
+		request.addHeader(IdempotencyFilter.HEADER, "listener-1");
+		request.setContent("{\"name\":\"Async Author\"}".getBytes(StandardCharsets.UTF_8));
+		byte[] reply = new byte[10_000];
+		ByteArrayOutputStream received = new ByteArrayOutputStream();
+		AtomicBoolean allRead = new AtomicBoolean();
+
+		filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+			ServletInputStream in = servletRequest.getInputStream();
+			in.setReadListener(new ReadListener() {
+				@Override
+				public void onDataAvailable() throws IOException {
+					while (in.isReady() && !in.isFinished()) {
+						received.write(in.read());
+					}
+				}
+
+				@Override
+				public void onAllDataRead() {
+					allRead.set(true);
+				}
+
+				@Override
+				public void onError(Throwable t) {
+					throw new AssertionError(t);
+				}
+			});
+			((HttpServletResponse) servletResponse).setStatus(201);
+			servletResponse.getOutputStream().write(reply);
+		});
+
+		assertThat(received.toString(StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"Async Author\"}");
+		assertThat(allRead).isTrue();
+		assertThat(filter.stats().getKeys()).isEqualTo(1);
+		assertThat(filter.stats().getMaximumWeightBytes()).isEqualTo(1024 * 1024);
+		await(() -> assertThat(filter.stats().getWeightBytes()).isGreaterThan(reply.length));
+	}
+
+	private static void await(Runnable assertion) throws InterruptedException {
+		// Caffeine applies weights on its maintenance pass, which may run on another thread.
+		for (int i = 0; ; i++) {
+			try {
+				assertion.run();
+				return;
+			} catch (AssertionError e) {
+				if (i == 100) {
+					throw e;
+				}
+				Thread.sleep(50);
+			}
+		}
+	}
+
+	private MockHttpServletResponse checkout(String key, String isbn) throws Exception {
+		return mockMvc.perform(post("/borrowings/new")
+						.header(IdempotencyFilter.HEADER, key)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"isbn\":\"" + isbn + "\",\"borrowerEmail\":\"idem@example.com\"}"))
+				.andReturn().getResponse();
+	}
+}
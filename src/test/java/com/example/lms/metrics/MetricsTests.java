@@ -0,0 +1,101 @@
+package com.example.lms.metrics;
+
+import com.example.lms.dto.borrowings.BatchCheckoutRequestDTO;
+import com.example.lms.dto.borrowings.BorrowingTransactionRequestDTO;
+import com.example.lms.model.Author;
+import com.example.lms.model.Book;
+import com.example.lms.model.Borrower;
+import com.example.lms.model.enums.Category;
+import com.example.lms.repository.AuthorRepository;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowerRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import com.example.lms.service.BorrowingTransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class MetricsTests {
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private BorrowingTransactionService borrowingTransactionService;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowerRepository borrowerRepository;
+
+	@Autowired
+	private BorrowingTransactionRepository borrowingTransactionRepository;
+
+	@BeforeEach
+	void clean() {
+		borrowingTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		borrowerRepository.deleteAllInBatch();
+		authorRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void checkoutsAndRefusalsAreCountedAndTimed() {
+		String isbn = "978-" + UUID.randomUUID();
+		Author author = authorRepository.save(new Author("Metered Author", "Biography"));
+		bookRepository.save(new Book("Metered", isbn, Category.FICTION, author, true));
+		borrowerRepository.save(new Borrower("Metered Borrower", "metered@example.com", "555-meter"));
+		double checkouts = count("lms.checkouts", null);
+		double unavailable = count("lms.checkouts.failed", "unavailable");
+		double bookNotFound = count("lms.checkouts.failed", "book_not_found");
+
+		borrowingTransactionService.createBorrowing(new BorrowingTransactionRequestDTO(isbn, "metered@example.com"));
+		assertThatThrownBy(() -> borrowingTransactionService.createBorrowing(new BorrowingTransactionRequestDTO(isbn, "metered@example.com")))
+				.hasMessageContaining("unavailable");
+		assertThatThrownBy(() -> borrowingTransactionService.createBorrowing(new BorrowingTransactionRequestDTO("978-missing", "metered@example.com")))
+				.hasMessageContaining("not found");
+
+		assertThat(count("lms.checkouts", null)).isEqualTo(checkouts + 1);
+		assertThat(count("lms.checkouts.failed", "unavailable")).isEqualTo(unavailable + 1);
+		assertThat(count("lms.checkouts.failed", "book_not_found")).isEqualTo(bookNotFound + 1);
+		assertThat(meterRegistry.get("lms.service.calls").tags("class", "BorrowingTransactionService", "method", "createBorrowing", "outcome", "error")
+				.timer().count()).isGreaterThanOrEqualTo(2);
+	}
+
+	@Test
+	void aBatchForAnUnknownBorrowerCountsEachRefusedBook() {
+		double borrowerNotFound = count("lms.checkouts.failed", "borrower_not_found");
+
+		assertThatThrownBy(() -> borrowingTransactionService.checkoutBatch(
+				new BatchCheckoutRequestDTO("nobody@example.com", List.of("978-1", "978-2", "978-1"))))
+				.hasMessageContaining("not found");
+
+		assertThat(count("lms.checkouts.failed", "borrower_not_found")).isEqualTo(borrowerNotFound + 2);
+	}
+
+	@Test
+	void cacheAndPoolMetersAreBound() {
+		assertThat(meterRegistry.find("cache.gets").tags("cache", "books").meters()).isNotEmpty();
+		assertThat(meterRegistry.find("hikaricp.connections.active").gauge()).isNotNull();
+		assertThat(meterRegistry.find("lms.loans.open").gauge()).isNotNull();
+	}
+
+	private double count(String name, String reason) {
+		return reason == null
+				? meterRegistry.get(name).counter().count()
+				: meterRegistry.get(name).tag("reason", reason).counter().count();
+	}
+}
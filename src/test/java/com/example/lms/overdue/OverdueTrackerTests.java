@@ -0,0 +1,58 @@
+package com.example.lms.overdue;
+
+import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
+import com.example.lms.event.BorrowingSavedEvent;
+import com.example.lms.model.enums.TransactionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OverdueTrackerTests {
+
+	private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+
+	private final OverdueTracker tracker = new OverdueTracker(null);
+
+	@Test
+	void sweepMovesOnlyLoansPastTheirReturnDate() {
+		BorrowingTransactionResponseDTO late = borrow(TODAY.minusDays(3));
+		BorrowingTransactionResponseDTO dueToday = borrow(TODAY);
+		BorrowingTransactionResponseDTO later = borrow(TODAY.plusDays(5));
+		BorrowingTransactionResponseDTO latest = borrow(TODAY.minusDays(1));
+
+		assertThat(tracker.overdue(TODAY, 10)).extracting(BorrowingTransactionResponseDTO::getId)
+				.containsExactly(late.getId(), latest.getId());
+		assertThat(tracker.overdueCount(TODAY.plusDays(1))).isEqualTo(3);
+		assertThat(tracker.overdue(TODAY.plusDays(6), 10)).extracting(BorrowingTransactionResponseDTO::getId)
+				.containsExactly(late.getId(), latest.getId(), dueToday.getId(), later.getId());
+		assertThat(tracker.overdue(TODAY.plusDays(6), 1)).hasSize(1);
+	}
+
+	@Test
+	void returnsAndExtensionsLeaveTheOverdueSet() {
+		BorrowingTransactionResponseDTO returned = borrow(TODAY.minusDays(3));
+		BorrowingTransactionResponseDTO extended = borrow(TODAY.minusDays(2));
+		assertThat(tracker.overdueCount(TODAY)).isEqualTo(2);
+
+		tracker.onBorrowingSaved(new BorrowingSavedEvent(returned, copy(returned, returned.getReturnDate(), TransactionStatus.RETURNED)));
+		tracker.onBorrowingSaved(new BorrowingSavedEvent(extended, copy(extended, TODAY.plusDays(14), TransactionStatus.BORROWED)));
+
+		assertThat(tracker.overdueCount(TODAY)).isZero();
+		assertThat(tracker.openCount()).isEqualTo(1);
+		assertThat(tracker.overdueCount(TODAY.plusDays(15))).isEqualTo(1);
+	}
+
+	private BorrowingTransactionResponseDTO borrow(LocalDate returnDate) {
+		BorrowingTransactionResponseDTO dto = new BorrowingTransactionResponseDTO(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+				returnDate.minusMonths(1), returnDate, TransactionStatus.BORROWED);
+		tracker.onBorrowingSaved(new BorrowingSavedEvent(null, dto));
+		return dto;
+	}
+
+	private static BorrowingTransactionResponseDTO copy(BorrowingTransactionResponseDTO dto, LocalDate returnDate, TransactionStatus status) {
+		return new BorrowingTransactionResponseDTO(dto.getId(), dto.getBookId(), dto.getBorrowerId(), dto.getBorrowDate(), returnDate, status);
+	}
+}
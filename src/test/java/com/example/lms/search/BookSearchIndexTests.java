@@ -0,0 +1,209 @@
+package com.example.lms.search;
+
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.event.AuthorDeletedEvent;
+import com.example.lms.event.AuthorRenamedEvent;
+import com.example.lms.event.AuthorsClearedEvent;
+import com.example.lms.event.BookAvailabilityChangedEvent;
+import com.example.lms.event.BookDeletedEvent;
+import com.example.lms.event.BookSavedEvent;
+import com.example.lms.event.BooksClearedEvent;
+import com.example.lms.model.enums.Category;
+import com.example.lms.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookSearchIndexTests {
+
+	private static final Comparator<IndexedBook> BY_TITLE = BookSortOrder.comparator(BookSortOrder.resolve(Sort.by("title")));
+
+	private final UUID tolkien = UUID.randomUUID();
+	private final UUID leGuin = UUID.randomUUID();
+
+	private final IndexedBook hobbit = book("The Hobbit", Category.FICTION, tolkien, "J. R. R. Tolkien");
+	private final IndexedBook silmarillion = book("The Silmarillion", Category.FICTION, tolkien, "J. R. R. Tolkien");
+	private final IndexedBook earthsea = book("A Wizard of Earthsea", Category.FICTION, leGuin, "Ursula K. Le Guin");
+	private final IndexedBook essays = book("The Wave in the Mind", Category.SCIENCE, leGuin, "Ursula K. Le Guin");
+	private final IndexedBook anonymous = book("The Book of Hours", Category.HISTORY, null, null);
+
+	@Test
+	void searchMatchesSubstringsCaseInsensitivelyAndCategoriesExactly() {
+		BookSearchIndex index = indexOf(hobbit, silmarillion, earthsea, essays, anonymous);
+
+		assertThat(titles(index.search("HOBB", null, null, BY_TITLE, 10))).containsExactly("The Hobbit");
+		assertThat(titles(index.search("the", null, null, BY_TITLE, 10)))
+				.containsExactly("The Book of Hours", "The Hobbit", "The Silmarillion", "The Wave in the Mind");
+		assertThat(titles(index.search(null, null, "le gu", BY_TITLE, 10)))
+				.containsExactly("A Wizard of Earthsea", "The Wave in the Mind");
+		assertThat(titles(index.search("the", Category.FICTION, "tolkien", BY_TITLE, 10)))
+				.containsExactly("The Hobbit", "The Silmarillion");
+		assertThat(titles(index.search(null, Category.SCIENCE, null, BY_TITLE, 10))).containsExactly("The Wave in the Mind");
+		assertThat(index.search(null, null, null, BY_TITLE, 10)).hasSize(5);
+	}
+
+	@Test
+	void searchConfirmsTheWholeSubstringAndHonoursShortKeysAndLimits() {
+		BookSearchIndex index = indexOf(hobbit, silmarillion, earthsea, essays, anonymous);
+
+		// Every trigram of "in the wave" occurs in "The Wave in the Mind", but not the whole phrase.
+		assertThat(index.search("in the wave", null, null, BY_TITLE, 10)).isEmpty();
+		assertThat(index.search("quantum", null, null, BY_TITLE, 10)).isEmpty();
+		assertThat(index.search(null, Category.ROMANCE, null, BY_TITLE, 10)).isEmpty();
+		assertThat(titles(index.search("of", null, null, BY_TITLE, 10))).containsExactly("A Wizard of Earthsea", "The Book of Hours");
+		assertThat(index.search("the", null, "x", BY_TITLE, 10)).isEmpty();
+		assertThat(titles(index.search("the", null, null, BY_TITLE, 2))).containsExactly("The Book of Hours", "The Hobbit");
+	}
+
+	@Test
+	void eventsKeepTheIndexCurrent() {
+		BookSearchIndex index = indexOf(hobbit, silmarillion, earthsea, essays, anonymous);
+
+		BookResponseDTO renamed = new BookResponseDTO(hobbit.id(), "There and Back Again", hobbit.isbn(), Category.FICTION, tolkien, true);
+		index.onBookSaved(new BookSavedEvent(hobbit.toResponse(), renamed, "J. R. R. Tolkien"));
+		assertThat(index.search("hobbit", null, null, BY_TITLE, 10)).isEmpty();
+		assertThat(titles(index.search("back again", null, null, BY_TITLE, 10))).containsExactly("There and Back Again");
+
+		index.onBookDeleted(new BookDeletedEvent(silmarillion.toResponse()));
+		assertThat(index.search("silmarillion", null, null, BY_TITLE, 10)).isEmpty();
+		assertThat(index.size()).isEqualTo(4);
+
+		index.onAvailabilityChanged(new BookAvailabilityChangedEvent(earthsea.id(), Category.FICTION, false));
+		assertThat(index.search("earthsea", null, null, BY_TITLE, 10))
+				.singleElement().extracting(BookResponseDTO::isAvailable).isEqualTo(false);
+
+		index.onAuthorRenamed(new AuthorRenamedEvent(leGuin, "U. K. Le Guin"));
+		assertThat(index.search(null, null, "ursula", BY_TITLE, 10)).isEmpty();
+		assertThat(titles(index.search(null, null, "u. k.", BY_TITLE, 10)))
+				.containsExactly("A Wizard of Earthsea", "The Wave in the Mind");
+
+		index.onAuthorDeleted(new AuthorDeletedEvent(leGuin));
+		assertThat(index.search(null, null, "le guin", BY_TITLE, 10)).isEmpty();
+		assertThat(index.search("earthsea", null, null, BY_TITLE, 10))
+				.singleElement().extracting(BookResponseDTO::getAuthorId).isNull();
+
+		// A freed doc id is reused without leaking the previous book's postings.
+		IndexedBook replacement = book("Unfinished Tales", Category.FICTION, tolkien, "J. R. R. Tolkien");
+		index.put(replacement);
+		assertThat(titles(index.search(null, null, "tolkien", BY_TITLE, 10)))
+				.containsExactly("There and Back Again", "Unfinished Tales");
+
+		index.onBooksCleared(new BooksClearedEvent());
+		assertThat(index.size()).isZero();
+		assertThat(index.search(null, null, null, BY_TITLE, 10)).isEmpty();
+	}
+
+	@Test
+	void changesDuringWarmupWinOverTheScannedRows() {
+		BookRepository bookRepository = mock(BookRepository.class);
+		BookSearchIndex index = new BookSearchIndex(bookRepository);
+		IndexedBook newer = book("The Hobbit, Annotated", Category.FICTION, tolkien, "J. R. R. Tolkien");
+		IndexedBook updatedEarthsea = new IndexedBook(earthsea.id(), "The Farthest Shore", earthsea.isbn(),
+				Category.FICTION, leGuin, "Ursula K. Le Guin", true);
+		when(bookRepository.streamAllForIndex()).thenReturn(Stream.of(hobbit, silmarillion, earthsea, anonymous)
+				.peek(book -> {
+					if (book == hobbit) {
+						index.remove(silmarillion.id());
+						index.put(updatedEarthsea);
+						index.put(newer);
+					}
+				}));
+
+		assertThat(index.isReady()).isFalse();
+		index.rebuild();
+
+		assertThat(index.isReady()).isTrue();
+		assertThat(titles(index.search(null, null, null, BY_TITLE, 10)))
+				.containsExactly("The Book of Hours", "The Farthest Shore", "The Hobbit", "The Hobbit, Annotated");
+
+		// Once ready, removals are no longer remembered, so the book can come back.
+		index.put(silmarillion);
+		assertThat(index.size()).isEqualTo(5);
+	}
+
+	@Test
+	void availabilityAndAuthorEventsDuringWarmupApplyToRowsNotYetScanned() {
+		BookRepository bookRepository = mock(BookRepository.class);
+		BookSearchIndex index = new BookSearchIndex(bookRepository);
+		UUID herbert = UUID.randomUUID();
+		IndexedBook dune = book("Dune", Category.FICTION, herbert, "Frank Herbert");
+		when(bookRepository.streamAllForIndex()).thenReturn(Stream.of(anonymous, hobbit, earthsea, dune)
+				.peek(book -> {
+					if (book == anonymous) {
+						index.onAvailabilityChanged(new BookAvailabilityChangedEvent(hobbit.id(), Category.FICTION, false));
+						index.onAuthorRenamed(new AuthorRenamedEvent(tolkien, "John Ronald Reuel Tolkien"));
+						index.onAuthorDeleted(new AuthorDeletedEvent(leGuin));
+					}
+				}));
+
+		index.rebuild();
+
+		assertThat(index.search("hobbit", null, null, BY_TITLE, 10))
+				.containsExactly(new BookResponseDTO(hobbit.id(), "The Hobbit", hobbit.isbn(), Category.FICTION, tolkien, false));
+		assertThat(titles(index.search(null, null, "ronald reuel", BY_TITLE, 10))).containsExactly("The Hobbit");
+		assertThat(index.search(null, null, "le guin", BY_TITLE, 10)).isEmpty();
+		assertThat(index.search("earthsea", null, null, BY_TITLE, 10).get(0).getAuthorId()).isNull();
+		assertThat(titles(index.search(null, null, "herbert", BY_TITLE, 10))).containsExactly("Dune");
+	}
+
+	@Test
+	void authorsClearedDuringWarmupDetachesRowsNotYetScanned() {
+		BookRepository bookRepository = mock(BookRepository.class);
+		BookSearchIndex index = new BookSearchIndex(bookRepository);
+		when(bookRepository.streamAllForIndex()).thenReturn(Stream.of(hobbit, earthsea)
+				.peek(book -> {
+					if (book == hobbit) {
+						index.onAuthorRenamed(new AuthorRenamedEvent(leGuin, "U. K. Le Guin"));
+						index.onAuthorsCleared(new AuthorsClearedEvent());
+					}
+				}));
+
+		index.rebuild();
+
+		assertThat(index.size()).isEqualTo(2);
+		assertThat(index.search(null, null, null, BY_TITLE, 10)).allSatisfy(book -> assertThat(book.getAuthorId()).isNull());
+		assertThat(index.search(null, null, "guin", BY_TITLE, 10)).isEmpty();
+	}
+
+	@Test
+	void clearDuringWarmupDiscardsTheRestOfTheScan() {
+		BookRepository bookRepository = mock(BookRepository.class);
+		BookSearchIndex index = new BookSearchIndex(bookRepository);
+		when(bookRepository.streamAllForIndex()).thenReturn(Stream.of(hobbit, silmarillion)
+				.peek(book -> {
+					if (book == hobbit) {
+						index.onBooksCleared(new BooksClearedEvent());
+					}
+				}));
+
+		index.rebuild();
+
+		assertThat(index.size()).isZero();
+		index.put(earthsea);
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	private static BookSearchIndex indexOf(IndexedBook... books) {
+		BookSearchIndex index = new BookSearchIndex(null);
+		for (IndexedBook book : books) {
+			index.put(book);
+		}
+		return index;
+	}
+
+	private static IndexedBook book(String title, Category category, UUID authorId, String authorName) {
+		return new IndexedBook(UUID.randomUUID(), title, UUID.randomUUID().toString(), category, authorId, authorName, true);
+	}
+
+	private static List<String> titles(List<BookResponseDTO> books) {
+		return books.stream().map(BookResponseDTO::getTitle).toList();
+	}
+}
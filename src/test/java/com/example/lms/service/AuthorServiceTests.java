@@ -0,0 +1,113 @@
+package com.example.lms.service;
+
+import com.example.lms.dto.author.AuthorRequestDTO;
+import com.example.lms.dto.author.AuthorResponseDTO;
+import com.example.lms.dto.author.AuthorUpdateDTO;
+import com.example.lms.repository.AuthorRepository;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AuthorServiceTests {
+
+	private static final int THREADS = 8;
+
+	@Autowired
+	private AuthorService authorService;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowingTransactionRepository borrowingTransactionRepository;
+
+	@BeforeEach
+	void clean() {
+		borrowingTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		authorRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void namesDifferingOnlyInCaseOrWhitespaceAreDuplicates() {
+		authorService.createAuthor(new AuthorRequestDTO("Ursula K. Le Guin", "Biography"));
+		AuthorResponseDTO other = authorService.createAuthor(new AuthorRequestDTO("Octavia Butler", "Biography"));
+
+		assertThatThrownBy(() -> authorService.createAuthor(new AuthorRequestDTO("  ursula k.   LE GUIN ", "Biography")))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Author already exists");
+		assertThatThrownBy(() -> authorService.update(other.getId(), new AuthorUpdateDTO("URSULA  K. le guin", "Biography")))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Author already exists");
+
+		// Changing only the case of an author's own name is not a clash.
+		assertThat(authorService.update(other.getId(), new AuthorUpdateDTO("OCTAVIA BUTLER", "Biography")).getName())
+				.isEqualTo("OCTAVIA BUTLER");
+	}
+
+	@Test
+	void updateKeepsTheNameWhenNoneIsSentAndRejectsABlankOne() {
+		AuthorResponseDTO author = authorService.createAuthor(new AuthorRequestDTO("Octavia Butler", "Biography"));
+
+		AuthorResponseDTO updated = authorService.update(author.getId(), new AuthorUpdateDTO(null, "New biography"));
+		assertThat(updated.getName()).isEqualTo("Octavia Butler");
+		assertThat(updated.getBiography()).isEqualTo("New biography");
+
+		assertThatThrownBy(() -> authorService.update(author.getId(), new AuthorUpdateDTO("  ", "Biography")))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Author name must not be blank");
+	}
+
+	@Test
+	void concurrentCreatesOfOneNameHaveExactlyOneWinner() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			CountDownLatch go = new CountDownLatch(1);
+			AtomicInteger winners = new AtomicInteger();
+			AtomicInteger duplicates = new AtomicInteger();
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				String name = i % 2 == 0 ? "Race Author" : "race  AUTHOR";
+				futures.add(executor.submit(() -> {
+					go.await();
+					try {
+						authorService.createAuthor(new AuthorRequestDTO(name, "Biography"));
+						winners.incrementAndGet();
+					} catch (IllegalArgumentException e) {
+						assertThat(e.getMessage()).isEqualTo("Author already exists");
+						duplicates.incrementAndGet();
+					}
+					return null;
+				}));
+			}
+			go.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+
+			assertThat(winners.get()).isEqualTo(1);
+			assertThat(duplicates.get()).isEqualTo(THREADS - 1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
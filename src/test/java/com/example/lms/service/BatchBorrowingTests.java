@@ -0,0 +1,143 @@
+package com.example.lms.service;
+
+import com.example.lms.dto.borrowings.BatchCheckoutRequestDTO;
+import com.example.lms.dto.borrowings.BatchItemResultDTO;
+import com.example.lms.dto.borrowings.BatchResultDTO;
+import com.example.lms.dto.borrowings.BatchReturnRequestDTO;
+import com.example.lms.event.BookAvailabilityChangedEvent;
+import com.example.lms.model.Author;
+import com.example.lms.model.Book;
+import com.example.lms.model.Borrower;
+import com.example.lms.model.enums.Category;
+import com.example.lms.model.enums.TransactionStatus;
+import com.example.lms.repository.AuthorRepository;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowerRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@RecordApplicationEvents
+class BatchBorrowingTests {
+
+	@Autowired
+	private BorrowingTransactionService borrowingTransactionService;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowerRepository borrowerRepository;
+
+	@Autowired
+	private BorrowingTransactionRepository borrowingTransactionRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ApplicationEvents applicationEvents;
+
+	private Author author;
+
+	@BeforeEach
+	void clean() {
+		borrowingTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		borrowerRepository.deleteAllInBatch();
+		authorRepository.deleteAllInBatch();
+		author = authorRepository.save(new Author("Batch Author", "Biography"));
+		borrowerRepository.save(new Borrower("Desk Borrower", "desk@example.com", "555-desk"));
+	}
+
+	@Test
+	void checkoutReportsEachItemAndReturnReleasesTheBooks() {
+		bookRepository.save(new Book("Available", "isbn-free", Category.HISTORY, author, true));
+		bookRepository.save(new Book("On loan", "isbn-taken", Category.HISTORY, author, false));
+
+		BatchResultDTO checkout = borrowingTransactionService.checkoutBatch(new BatchCheckoutRequestDTO(
+				"desk@example.com", List.of("isbn-free", "isbn-taken", "isbn-missing", "isbn-free")));
+
+		assertThat(checkout.getSucceeded()).isEqualTo(1);
+		assertThat(checkout.getFailed()).isEqualTo(3);
+		assertThat(checkout.getItems()).extracting(BatchItemResultDTO::isSuccess).containsExactly(true, false, false, false);
+		assertThat(bookRepository.findByIsbn("isbn-free").orElseThrow().isAvailable()).isFalse();
+
+		UUID loanId = checkout.getItems().get(0).getTransaction().getId();
+		BatchResultDTO returned = borrowingTransactionService.returnBatch(new BatchReturnRequestDTO(List.of(loanId, loanId, UUID.randomUUID())));
+
+		assertThat(returned.getItems()).extracting(BatchItemResultDTO::isSuccess).containsExactly(true, false, false);
+		assertThat(borrowingTransactionRepository.findById(loanId).orElseThrow().getStatus()).isEqualTo(TransactionStatus.RETURNED);
+		assertThat(bookRepository.findByIsbn("isbn-free").orElseThrow().isAvailable()).isTrue();
+
+		BatchResultDTO again = borrowingTransactionService.returnBatch(new BatchReturnRequestDTO(List.of(loanId)));
+		assertThat(again.getItems().get(0).getMessage()).contains("already returned");
+	}
+
+	@Test
+	void returnAnnouncesOnlyBooksItActuallyReleased() {
+		bookRepository.save(new Book("Still out", "isbn-out", Category.HISTORY, author, true));
+		Book edited = bookRepository.save(new Book("Edited back", "isbn-edited", Category.HISTORY, author, true));
+		BatchResultDTO checkout = borrowingTransactionService.checkoutBatch(new BatchCheckoutRequestDTO(
+				"desk@example.com", List.of("isbn-out", "isbn-edited")));
+		assertThat(checkout.getSucceeded()).isEqualTo(2);
+
+		// An admin marks one copy available again while its loan is still open.
+		edited = bookRepository.findById(edited.getId()).orElseThrow();
+		edited.setAvailable(true);
+		bookRepository.save(edited);
+
+		applicationEvents.clear();
+		List<UUID> loanIds = checkout.getItems().stream().map(item -> item.getTransaction().getId()).toList();
+		BatchResultDTO returned = borrowingTransactionService.returnBatch(new BatchReturnRequestDTO(loanIds));
+
+		assertThat(returned.getSucceeded()).isEqualTo(2);
+		assertThat(applicationEvents.stream(BookAvailabilityChangedEvent.class))
+				.containsExactly(new BookAvailabilityChangedEvent(bookRepository.findByIsbn("isbn-out").orElseThrow().getId(), Category.HISTORY, true));
+		assertThat(bookRepository.findByIsbn("isbn-out").orElseThrow().isAvailable()).isTrue();
+		assertThat(bookRepository.findByIsbn("isbn-edited").orElseThrow().isAvailable()).isTrue();
+	}
+
+	@Test
+	void checkoutStatementsDoNotGrowWithItems() {
+		long few = statementsForCheckout(seedBooks("few", 3));
+		long many = statementsForCheckout(seedBooks("many", 20));
+
+		assertThat(many).isEqualTo(few);
+	}
+
+	private List<String> seedBooks(String prefix, int count) {
+		List<String> isbns = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String isbn = prefix + "-" + i;
+			bookRepository.save(new Book("Title " + i, isbn, Category.HISTORY, author, true));
+			isbns.add(isbn);
+		}
+		return isbns;
+	}
+
+	private long statementsForCheckout(List<String> isbns) {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		BatchResultDTO result = borrowingTransactionService.checkoutBatch(new BatchCheckoutRequestDTO("desk@example.com", isbns));
+		assertThat(result.getSucceeded()).isEqualTo(isbns.size());
+		return statistics.getPrepareStatementCount();
+	}
+}
@@ -0,0 +1,112 @@
+package com.example.lms.service;
+
+import com.example.lms.dto.book.BookImportErrorDTO;
+import com.example.lms.dto.book.BookImportResultDTO;
+import com.example.lms.model.Author;
+import com.example.lms.model.Book;
+import com.example.lms.model.enums.Category;
+import com.example.lms.repository.AuthorRepository;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class BookImportServiceTests {
+
+	@Autowired
+	private BookImportService bookImportService;
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowingTransactionRepository borrowingTransactionRepository;
+
+	private Author author;
+
+	@BeforeEach
+	void clean() {
+		borrowingTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		authorRepository.deleteAllInBatch();
+		author = authorRepository.save(new Author("Import Author", "Biography"));
+	}
+
+	@Test
+	void onlyTheOffendingRowsOfAChunkAreRejected() throws Exception {
+		bookRepository.save(new Book("Already here", "import-existing", Category.HISTORY, author, true));
+		String csv = String.join("\n",
+				"title,isbn,category,authorId",
+				"First,import-1,HISTORY," + author.getId(),
+				"Existing,import-existing,HISTORY," + author.getId(),
+				"Second,import-2,HISTORY," + author.getId(),
+				"Twice,import-1,HISTORY," + author.getId(),
+				"Nobody's,import-3,HISTORY," + UUID.randomUUID(),
+				// Passes every check made before the insert; only the column length rejects it.
+				"x".repeat(300) + ",import-4,HISTORY," + author.getId(),
+				"Third,import-5,HISTORY," + author.getId());
+
+		BookImportResultDTO result = bookImportService.importBooks(
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BookImportService.Format.CSV);
+
+		assertThat(result.getReceived()).isEqualTo(7);
+		assertThat(result.getImported()).isEqualTo(3);
+		assertThat(result.getRejected()).isEqualTo(4);
+		assertThat(result.getErrors()).extracting(BookImportErrorDTO::getIsbn)
+				.containsExactlyInAnyOrder("import-existing", "import-1", "import-3", "import-4");
+		assertThat(bookRepository.findExistingIsbns(List.of("import-1", "import-2", "import-4", "import-5")))
+				.containsExactlyInAnyOrder("import-1", "import-2", "import-5");
+	}
+
+	@Test
+	void anExportedCatalogImportsBackWithMultiLineTitles() throws Exception {
+		bookRepository.save(new Book("Poems\nin \"two\" lines, with a comma", "import-multiline", Category.BIOGRAPHY, author, true));
+		bookRepository.save(new Book("Plain", "import-plain", Category.SCIENCE, author, false));
+		ByteArrayOutputStream exported = new ByteArrayOutputStream();
+		exportService.exportBooks(exported, ExportService.Format.CSV, false);
+		bookRepository.deleteAllInBatch();
+
+		BookImportResultDTO result = bookImportService.importBooks(
+				new ByteArrayInputStream(exported.toByteArray()), BookImportService.Format.CSV);
+
+		assertThat(result.getErrors()).isEmpty();
+		assertThat(result.getImported()).isEqualTo(2);
+		assertThat(bookRepository.findAll()).extracting(Book::getTitle, Book::getIsbn, Book::getCategory)
+				.containsExactlyInAnyOrder(
+						tuple("Poems\nin \"two\" lines, with a comma", "import-multiline", Category.BIOGRAPHY),
+						tuple("Plain", "import-plain", Category.SCIENCE));
+	}
+
+	@Test
+	void anUnterminatedQuoteIsReportedAtTheLineItOpensOn() throws Exception {
+		String csv = String.join("\n",
+				"title,isbn,category,authorId",
+				"\"Open,import-open,HISTORY," + author.getId(),
+				"Never closed,import-never,HISTORY," + author.getId());
+
+		BookImportResultDTO result = bookImportService.importBooks(
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BookImportService.Format.CSV);
+
+		assertThat(result.getReceived()).isEqualTo(1);
+		assertThat(result.getErrors()).extracting(BookImportErrorDTO::getLine, BookImportErrorDTO::getMessage)
+				.containsExactly(tuple(2L, "Unterminated quoted field"));
+	}
+}
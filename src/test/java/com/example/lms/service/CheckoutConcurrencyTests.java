@@ -0,0 +1,120 @@
+package com.example.lms.service;
+
+import com.example.lms.dto.borrowings.BorrowingTransactionRequestDTO;
+import com.example.lms.model.Author;
+import com.example.lms.model.Book;
+import com.example.lms.model.Borrower;
+import com.example.lms.model.BorrowingTransaction;
+import com.example.lms.model.enums.Category;
+import com.example.lms.model.enums.TransactionStatus;
+import com.example.lms.repository.AuthorRepository;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowerRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CheckoutConcurrencyTests {
+
+	private static final Logger log = LoggerFactory.getLogger(CheckoutConcurrencyTests.class);
+
+	private static final int THREADS = 32;
+	private static final int ROUNDS = 20;
+	private static final String ISBN = "rush-isbn";
+
+	@Autowired
+	private BorrowingTransactionService borrowingTransactionService;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowerRepository borrowerRepository;
+
+	@Autowired
+	private BorrowingTransactionRepository borrowingTransactionRepository;
+
+	@BeforeEach
+	void clean() {
+		borrowingTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		borrowerRepository.deleteAllInBatch();
+		authorRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void concurrentCheckoutsOfOneIsbnHaveExactlyOneWinner() throws Exception {
+		Author author = authorRepository.save(new Author("Rush Author", "Biography"));
+		Book book = bookRepository.save(new Book("Rush Title", ISBN, Category.HISTORY, author, true));
+		for (int i = 0; i < THREADS; i++) {
+			borrowerRepository.save(new Borrower("Borrower " + i, "rush" + i + "@example.com", "555-rush-" + i));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		long attempts = 0;
+		long start = System.nanoTime();
+		try {
+			for (int round = 0; round < ROUNDS; round++) {
+				CountDownLatch go = new CountDownLatch(1);
+				AtomicInteger winners = new AtomicInteger();
+				AtomicInteger losers = new AtomicInteger();
+				List<Future<?>> futures = new ArrayList<>();
+				for (int i = 0; i < THREADS; i++) {
+					String email = "rush" + i + "@example.com";
+					futures.add(executor.submit(() -> {
+						go.await();
+						try {
+							borrowingTransactionService.createBorrowing(new BorrowingTransactionRequestDTO(ISBN, email));
+							winners.incrementAndGet();
+						} catch (RuntimeException e) {
+							assertThat(e.getMessage()).contains("unavailable");
+							losers.incrementAndGet();
+						}
+						return null;
+					}));
+				}
+				go.countDown();
+				for (Future<?> future : futures) {
+					future.get(30, TimeUnit.SECONDS);
+				}
+				attempts += THREADS;
+
+				assertThat(winners.get()).isEqualTo(1);
+				assertThat(losers.get()).isEqualTo(THREADS - 1);
+				Book claimed = bookRepository.findById(book.getId()).orElseThrow();
+				assertThat(claimed.isAvailable()).isFalse();
+
+				// Return the copy so the next round starts from an available book.
+				claimed.setAvailable(true);
+				bookRepository.save(claimed);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+		log.info("{} checkout attempts in {} ms ({} attempts/s)", attempts, elapsedMillis, attempts * 1000 / elapsedMillis);
+
+		List<BorrowingTransaction> loans = borrowingTransactionRepository.findAll();
+		assertThat(loans).hasSize(ROUNDS);
+		assertThat(loans).allMatch(loan -> loan.getStatus() == TransactionStatus.BORROWED);
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.lms.service;
+
+import com.example.lms.archive.BorrowingArchive;
+import com.example.lms.model.Author;
+import com.example.lms.model.Book;
+import com.example.lms.model.Borrower;
+import com.example.lms.model.BorrowingTransaction;
+import com.example.lms.model.enums.Category;
+import com.example.lms.model.enums.TransactionStatus;
+import com.example.lms.repository.AuthorRepository;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowerRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+class DeleteAllBorrowingsTests {
+
+	@Autowired
+	private BorrowingTransactionService borrowingTransactionService;
+
+	@MockitoSpyBean
+	private BorrowingArchive borrowingArchive;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowerRepository borrowerRepository;
+
+	@Autowired
+	private BorrowingTransactionRepository borrowingTransactionRepository;
+
+	@BeforeEach
+	void clean() {
+		borrowingTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		borrowerRepository.deleteAllInBatch();
+		authorRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void aFailingArchiveClearLeavesTheHotTableUntouched() {
+		Author author = authorRepository.save(new Author("Clear Author", "Biography"));
+		Book book = bookRepository.save(new Book("Clear Title", "isbn-clear", Category.HISTORY, author, false));
+		Borrower borrower = borrowerRepository.save(new Borrower("Clearer", "clearer@example.com", "555-clear"));
+		borrowingTransactionRepository.save(new BorrowingTransaction(book, borrower, LocalDate.now().minusDays(3),
+				LocalDate.now().plusDays(11), TransactionStatus.BORROWED));
+
+		doThrow(new DataAccessResourceFailureException("archive unavailable")).when(borrowingArchive).deleteAll();
+		try {
+			assertThatThrownBy(() -> borrowingTransactionService.deleteAllBorrowings())
+					.isInstanceOf(DataAccessResourceFailureException.class);
+			assertThat(borrowingTransactionRepository.count()).isEqualTo(1);
+		} finally {
+			doCallRealMethod().when(borrowingArchive).deleteAll();
+		}
+
+		borrowingTransactionService.deleteAllBorrowings();
+		assertThat(borrowingTransactionRepository.count()).isZero();
+	}
+}
@@ -0,0 +1,104 @@
+package com.example.lms.service;
+
+import com.example.lms.archive.BorrowingArchive;
+import com.example.lms.dto.purge.PurgeJobDTO;
+import com.example.lms.repository.AuthorRepository;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowerRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PurgeJobServiceTests {
+
+	private final BorrowingTransactionRepository borrowingTransactionRepository = mock(BorrowingTransactionRepository.class);
+	private final BookRepository bookRepository = mock(BookRepository.class);
+
+	private PurgeJobService purgeJobService;
+
+	@AfterEach
+	void shutdown() {
+		purgeJobService.shutdown();
+	}
+
+	@Test
+	void failingCountMarksTheJobFailedAndFreesTheTarget() throws Exception {
+		purgeJobService = service(Duration.ofHours(1));
+		when(bookRepository.count()).thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+		PurgeJobDTO failed = awaitFinished(purgeJobService.start(PurgeJobService.Target.BOOKS));
+
+		assertThat(failed.getStatus()).isEqualTo("FAILED");
+		assertThat(failed.getError()).contains("connection refused");
+
+		doReturn(0L).when(bookRepository).count();
+		when(bookRepository.findIds(any())).thenReturn(List.of());
+		PurgeJobDTO retried = awaitFinished(purgeJobService.start(PurgeJobService.Target.BOOKS));
+
+		assertThat(retried.getId()).isNotEqualTo(failed.getId());
+		assertThat(retried.getStatus()).isEqualTo("COMPLETED");
+	}
+
+	@Test
+	void failingChunkMarksTheJobFailedAfterTheChunksAlreadyDeleted() throws Exception {
+		purgeJobService = service(Duration.ofHours(1));
+		when(bookRepository.count()).thenReturn(3L);
+		when(bookRepository.findIds(any()))
+				.thenReturn(List.of(UUID.randomUUID(), UUID.randomUUID()))
+				.thenThrow(new DataAccessResourceFailureException("lock timeout"));
+
+		PurgeJobDTO failed = awaitFinished(purgeJobService.start(PurgeJobService.Target.BOOKS));
+
+		assertThat(failed.getStatus()).isEqualTo("FAILED");
+		assertThat(failed.getTotal()).isEqualTo(3);
+		assertThat(failed.getDeleted()).isEqualTo(2);
+		assertThat(failed.getChunks()).isEqualTo(1);
+
+		doReturn(List.of()).when(bookRepository).findIds(any());
+		assertThat(purgeJobService.start(PurgeJobService.Target.BOOKS).getId()).isNotEqualTo(failed.getId());
+	}
+
+	@Test
+	void finishedJobsAreDroppedAfterTheRetentionPeriod() throws Exception {
+		purgeJobService = service(Duration.ZERO);
+		when(borrowingTransactionRepository.findIds(any())).thenReturn(List.of());
+
+		awaitFinished(purgeJobService.start(PurgeJobService.Target.BORROWINGS));
+		Thread.sleep(5);
+
+		assertThat(purgeJobService.getJobs()).isEmpty();
+	}
+
+	private PurgeJobService service(Duration retention) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+		return new PurgeJobService(borrowingTransactionRepository, bookRepository, mock(BorrowerRepository.class),
+				mock(AuthorRepository.class), mock(BorrowingArchive.class), transactionTemplate,
+				mock(ApplicationEventPublisher.class), 2, retention);
+	}
+
+	private PurgeJobDTO awaitFinished(PurgeJobDTO started) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (System.nanoTime() < deadline) {
+			PurgeJobDTO job = purgeJobService.getJob(started.getId());
+			if (job.getFinishedAt() != null) {
+				return job;
+			}
+			Thread.sleep(10);
+		}
+		throw new AssertionError("Purge job " + started.getId() + " did not finish");
+	}
+}
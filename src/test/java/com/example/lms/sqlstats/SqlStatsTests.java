@@ -0,0 +1,84 @@
+package com.example.lms.sqlstats;
+
+import com.example.lms.dto.diagnostics.SqlEndpointStatsDTO;
+import com.example.lms.model.Author;
+import com.example.lms.model.Book;
+import com.example.lms.model.enums.Category;
+import com.example.lms.repository.AuthorRepository;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlStatsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private SqlStatsCollector collector;
+
+	@Autowired
+	private AuthorRepository authorRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowingTransactionRepository borrowingTransactionRepository;
+
+	@BeforeEach
+	void clean() {
+		borrowingTransactionRepository.deleteAllInBatch();
+		bookRepository.deleteAllInBatch();
+		authorRepository.deleteAllInBatch();
+		collector.reset();
+	}
+
+	@Test
+	void requestsAreAttributedToTheirControllerMethod() throws Exception {
+		Author author = authorRepository.save(new Author("Counted Author", "Biography"));
+		for (int i = 0; i < 5; i++) {
+			bookRepository.save(new Book("Counted " + i, "978-sql-" + i, Category.FICTION, author, true));
+		}
+
+		mockMvc.perform(get("/books/all")).andExpect(status().isOk());
+		mockMvc.perform(get("/books/all")).andExpect(status().isOk());
+
+		SqlEndpointStatsDTO stats = stats("BookController.getAllBooks");
+		assertThat(stats.getRequests()).isEqualTo(2);
+		assertThat(stats.getStatements()).isEqualTo(2);
+		assertThat(stats.getRows()).isEqualTo(10);
+		assertThat(stats.getRepeatedStatementWarnings()).isZero();
+	}
+
+	@Test
+	void repeatingOneStatementShapeIsFlagged() {
+		collector.begin();
+		for (int i = 0; i < 12; i++) {
+			// Literals and IN-list lengths differ; the shape does not.
+			collector.onStatement("select * from books where author_id = " + i + " and id in (?" + ", ?".repeat(i) + ")", 1_000);
+		}
+		collector.end("Test.nPlusOne");
+
+		assertThat(stats("Test.nPlusOne").getRepeatedStatementWarnings()).isEqualTo(1);
+		assertThat(collector.shape("select 'a''b', 42 from t1_0 where x in (?, ?)")).isEqualTo("select ?, ? from t1_0 where x in (?)");
+	}
+
+	private SqlEndpointStatsDTO stats(String endpoint) {
+		return collector.endpointStats().stream()
+				.filter(dto -> dto.getEndpoint().equals(endpoint))
+				.findFirst()
+				.orElseThrow();
+	}
+}
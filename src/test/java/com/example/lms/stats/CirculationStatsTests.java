@@ -0,0 +1,124 @@
+package com.example.lms.stats;
+
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.dto.stats.CategoryStatsDTO;
+import com.example.lms.dto.stats.CirculationStatsDTO;
+import com.example.lms.dto.stats.DailyLoansDTO;
+import com.example.lms.event.BookAvailabilityChangedEvent;
+import com.example.lms.event.BookSavedEvent;
+import com.example.lms.model.enums.Category;
+import com.example.lms.repository.BookRepository;
+import com.example.lms.repository.BorrowingTransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CirculationStatsTests {
+
+	private static final int WINDOW_DAYS = 7;
+
+	private final BookRepository bookRepository = mock(BookRepository.class);
+	private final BorrowingTransactionRepository borrowingTransactionRepository = mock(BorrowingTransactionRepository.class);
+	private final CirculationStats stats = new CirculationStats(bookRepository, borrowingTransactionRepository, WINDOW_DAYS);
+
+	@Test
+	void checkoutsAndReturnsAreCountedPerCategoryAndDay() {
+		BookResponseDTO dune = save(Category.FICTION);
+		save(Category.FICTION);
+		BookResponseDTO cosmos = save(Category.SCIENCE);
+		save(Category.HISTORY);
+
+		checkout(dune);
+		checkout(cosmos);
+		giveBack(dune);
+		checkout(dune);
+
+		CirculationStatsDTO snapshot = stats.snapshot();
+		assertThat(snapshot.getTotalBooks()).isEqualTo(4);
+		assertThat(snapshot.getAvailableBooks()).isEqualTo(2);
+		assertThat(snapshot.getBorrowedBooks()).isEqualTo(2);
+		assertThat(category(snapshot, Category.FICTION)).isEqualTo(new CategoryStatsDTO(Category.FICTION, 2, 1, 1, 0.5, 2));
+		assertThat(category(snapshot, Category.SCIENCE)).isEqualTo(new CategoryStatsDTO(Category.SCIENCE, 1, 0, 1, 0.0, 1));
+		assertThat(category(snapshot, Category.HISTORY)).isEqualTo(new CategoryStatsDTO(Category.HISTORY, 1, 1, 0, 1.0, 0));
+
+		assertThat(snapshot.getLoansPerDay()).hasSize(WINDOW_DAYS);
+		DailyLoansDTO today = snapshot.getLoansPerDay().get(WINDOW_DAYS - 1);
+		assertThat(today.getDate()).isEqualTo(LocalDate.now());
+		assertThat(today.getLoans()).isEqualTo(3);
+		assertThat(today.getByCategory()).isEqualTo(Map.of(Category.FICTION, 2L, Category.SCIENCE, 1L));
+		assertThat(snapshot.getLoansPerDay().subList(0, WINDOW_DAYS - 1)).allSatisfy(day -> assertThat(day.getLoans()).isZero());
+	}
+
+	@Test
+	void reconcileCorrectsDriftToWhatTheDatabaseSays() {
+		BookResponseDTO dune = save(Category.FICTION);
+		save(Category.FICTION);
+		checkout(dune);
+
+		// A ROMANCE title and two loans of it that no event reported; the FICTION title on the shelf is gone.
+		LocalDate yesterday = LocalDate.now().minusDays(1);
+		when(bookRepository.countByCategory()).thenReturn(List.of(
+				new CategoryCount(Category.FICTION, 1L, 0L),
+				new CategoryCount(Category.ROMANCE, 1L, 1L)));
+		when(borrowingTransactionRepository.countLoansSince(LocalDate.now().minusDays(WINDOW_DAYS - 1)))
+				.thenReturn(List.of(
+						new DailyLoanCount(LocalDate.now(), Category.FICTION, 1L),
+						new DailyLoanCount(yesterday, Category.ROMANCE, 2L)));
+
+		stats.reconcile();
+
+		CirculationStatsDTO snapshot = stats.snapshot();
+		assertThat(category(snapshot, Category.FICTION)).isEqualTo(new CategoryStatsDTO(Category.FICTION, 1, 0, 1, 0.0, 1));
+		assertThat(category(snapshot, Category.ROMANCE)).isEqualTo(new CategoryStatsDTO(Category.ROMANCE, 1, 1, 0, 1.0, 2));
+		assertThat(snapshot.getLoansPerDay().get(WINDOW_DAYS - 2).getByCategory()).isEqualTo(Map.of(Category.ROMANCE, 2L));
+		// FICTION total and available -1 each, ROMANCE total and available +1 each, yesterday's ROMANCE loans +2.
+		assertThat(snapshot.getLastReconcileDrift()).isEqualTo(6);
+		assertThat(snapshot.getReconciledAt()).isNotNull();
+
+		stats.reconcile();
+		assertThat(stats.snapshot().getLastReconcileDrift()).isZero();
+	}
+
+	@Test
+	void anEventAppliedWhileReconcileQueriesIsKept() {
+		BookResponseDTO dune = save(Category.FICTION);
+		save(Category.FICTION);
+
+		// The checkout commits after the query's snapshot but is applied before the correction.
+		when(bookRepository.countByCategory()).thenAnswer(invocation -> {
+			checkout(dune);
+			return List.of(new CategoryCount(Category.FICTION, 2L, 2L));
+		});
+
+		stats.reconcile();
+
+		CirculationStatsDTO snapshot = stats.snapshot();
+		assertThat(category(snapshot, Category.FICTION)).isEqualTo(new CategoryStatsDTO(Category.FICTION, 2, 1, 1, 0.5, 1));
+		assertThat(snapshot.getLastReconcileDrift()).isZero();
+	}
+
+	private BookResponseDTO save(Category category) {
+		BookResponseDTO book = new BookResponseDTO(UUID.randomUUID(), "Title", UUID.randomUUID().toString(), category, null, true);
+		stats.onBookSaved(new BookSavedEvent(null, book, null));
+		return book;
+	}
+
+	private void checkout(BookResponseDTO book) {
+		stats.onAvailabilityChanged(new BookAvailabilityChangedEvent(book.getId(), book.getCategory(), false));
+	}
+
+	private void giveBack(BookResponseDTO book) {
+		stats.onAvailabilityChanged(new BookAvailabilityChangedEvent(book.getId(), book.getCategory(), true));
+	}
+
+	private static CategoryStatsDTO category(CirculationStatsDTO snapshot, Category category) {
+		return snapshot.getCategories().stream().filter(stats -> stats.getCategory() == category).findFirst().orElseThrow();
+	}
+}
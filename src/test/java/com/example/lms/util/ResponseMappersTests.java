@@ -0,0 +1,94 @@
+package com.example.lms.util;
+
+import com.example.lms.dto.author.AuthorResponseDTO;
+import com.example.lms.dto.book.BookResponseDTO;
+import com.example.lms.dto.borrower.BorrowerResponseDTO;
+import com.example.lms.dto.borrowings.BorrowingTransactionResponseDTO;
+import com.example.lms.model.Author;
+import com.example.lms.model.Book;
+import com.example.lms.model.Borrower;
+import com.example.lms.model.BorrowingTransaction;
+import com.example.lms.model.enums.Category;
+import com.example.lms.model.enums.TransactionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseMappersTests {
+
+	private static final LocalDate BORROWED = LocalDate.of(2025, 3, 1);
+	private static final LocalDate DUE = LocalDate.of(2025, 3, 15);
+
+	@Test
+	void bookMapsEveryFieldAndItsAuthorId() {
+		Author author = withId(new Author("Ursula K. Le Guin", "Biography"));
+		Book book = withId(new Book("A Wizard of Earthsea", "978-0547773742", Category.FICTION, author, true));
+
+		assertThat(ResponseMappers.toResponse(book)).isEqualTo(new BookResponseDTO(book.getId(), "A Wizard of Earthsea",
+				"978-0547773742", Category.FICTION, author.getId(), true));
+	}
+
+	@Test
+	void bookWithoutAnAuthorMapsToANullAuthorId() {
+		Book book = withId(new Book("The Book of Hours", "978-0", Category.HISTORY, null, false));
+
+		assertThat(ResponseMappers.toResponse(book)).isEqualTo(new BookResponseDTO(book.getId(), "The Book of Hours",
+				"978-0", Category.HISTORY, null, false));
+	}
+
+	@Test
+	void borrowerMapsEveryField() {
+		Borrower borrower = new Borrower("Reader", "reader@example.com", "555-0100");
+		borrower.setId(UUID.randomUUID());
+
+		assertThat(ResponseMappers.toResponse(borrower))
+				.isEqualTo(new BorrowerResponseDTO(borrower.getId(), "Reader", "reader@example.com", "555-0100"));
+	}
+
+	@Test
+	void loanMapsEveryFieldAndTheIdsOfItsBookAndBorrower() {
+		Book book = withId(new Book("Dune", "978-0441013593", Category.FICTION, null, false));
+		Borrower borrower = new Borrower("Reader", "reader@example.com", "555-0100");
+		borrower.setId(UUID.randomUUID());
+		BorrowingTransaction loan = withId(new BorrowingTransaction(book, borrower, BORROWED, DUE, TransactionStatus.BORROWED));
+
+		assertThat(ResponseMappers.toResponse(loan)).isEqualTo(new BorrowingTransactionResponseDTO(loan.getId(),
+				book.getId(), borrower.getId(), BORROWED, DUE, TransactionStatus.BORROWED));
+	}
+
+	@Test
+	void loanWithoutABookOrBorrowerMapsToNullIds() {
+		BorrowingTransaction loan = withId(new BorrowingTransaction(null, null, BORROWED, DUE, TransactionStatus.RETURNED));
+
+		assertThat(ResponseMappers.toResponse(loan)).isEqualTo(new BorrowingTransactionResponseDTO(loan.getId(),
+				null, null, BORROWED, DUE, TransactionStatus.RETURNED));
+	}
+
+	@Test
+	void authorMapsEveryFieldAndTheIsbnsPassedIn() {
+		Author author = withId(new Author("Octavia Butler", "Biography"));
+
+		assertThat(ResponseMappers.toResponse(author, List.of("978-1", "978-2")))
+				.isEqualTo(new AuthorResponseDTO(author.getId(), "Octavia Butler", "Biography", List.of("978-1", "978-2")));
+		assertThat(ResponseMappers.toResponse(author, List.of()).getBookIsbns()).isEmpty();
+	}
+
+	private static Author withId(Author author) {
+		author.setId(UUID.randomUUID());
+		return author;
+	}
+
+	private static Book withId(Book book) {
+		book.setId(UUID.randomUUID());
+		return book;
+	}
+
+	private static BorrowingTransaction withId(BorrowingTransaction loan) {
+		loan.setId(UUID.randomUUID());
+		return loan;
+	}
+}